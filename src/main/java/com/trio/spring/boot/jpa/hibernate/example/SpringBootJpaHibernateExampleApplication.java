@@ -2,8 +2,10 @@ package com.trio.spring.boot.jpa.hibernate.example;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SpringBootJpaHibernateExampleApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,122 @@
+package com.trio.spring.boot.jpa.hibernate.example.batching;
+
+import com.trio.spring.boot.jpa.hibernate.example.config.UserBatchLoadingProperties;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// DataLoader-style coalescing of id lookups: concurrent lookups from one source join a batch that is loaded with a single
+// multi-id query once it holds maxBatchSize ids or its first lookup has waited maxDelay. No extra threads are involved, the
+// first lookup of a batch (or the one that fills it) runs the query and every other lookup waits for its result.
+@Slf4j
+@Component
+public class UserBatchLoader {
+
+    private final boolean enabled;
+    private final long maxDelayNanos;
+    private final int maxBatchSize;
+    private final ConcurrentMap<Class<?>, Source> sources = new ConcurrentHashMap<>();
+
+    public UserBatchLoader(UserBatchLoadingProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.maxDelayNanos = properties.getMaxDelay().toNanos();
+        this.maxBatchSize = properties.getMaxBatchSize();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Lookups of one source share batches, so every caller of a source has to pass the same batch function
+    public UserResponse load(Class<?> source, Long id, Function<List<Long>, List<UserResponse>> batchFunction) {
+        Source batches = sources.computeIfAbsent(source, key -> new Source(batchFunction));
+        Batch batch;
+        CompletableFuture<UserResponse> user;
+        boolean leader = false;
+        boolean full = false;
+        synchronized (batches) {
+            if (batches.open == null) {
+                batches.open = new Batch(Thread.currentThread());
+                leader = true;
+            }
+            batch = batches.open;
+            user = batch.users.computeIfAbsent(id, key -> new CompletableFuture<>()); // An id already waiting shares its result
+            if (batch.users.size() >= maxBatchSize) {
+                batches.open = null; // Closed, the next lookup starts a new batch
+                full = true;
+            }
+        }
+        if (full) {
+            LockSupport.unpark(batch.leader); // Nothing left to wait for
+            dispatch(batches, batch);
+        } else if (leader) {
+            LockSupport.parkNanos(this, maxDelayNanos); // A spurious wakeup only shortens the window
+            boolean closedHere = false;
+            synchronized (batches) {
+                if (batches.open == batch) {
+                    batches.open = null;
+                    closedHere = true;
+                }
+            }
+            if (closedHere) { // Otherwise the lookup that filled the batch dispatches it
+                dispatch(batches, batch);
+            }
+        }
+        try {
+            return user.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private void dispatch(Source source, Batch batch) {
+        List<Long> ids = List.copyOf(batch.users.keySet()); // The batch is closed, nobody adds ids any more
+        log.debug("Loading a batch of {} users", ids.size());
+        try {
+            Map<Long, UserResponse> users = source.batchFunction.apply(ids).stream()
+                    .collect(Collectors.toMap(UserResponse::getId, Function.identity()));
+            batch.users.forEach((id, user) -> {
+                UserResponse loaded = users.get(id);
+                if (loaded != null) {
+                    user.complete(loaded);
+                } else {
+                    user.completeExceptionally(new UserNotFoundException(id));
+                }
+            });
+        } catch (RuntimeException e) {
+            batch.users.values().forEach(user -> user.completeExceptionally(e)); // A failed query fails every lookup of the batch
+        }
+    }
+
+    private static final class Source {
+
+        private final Function<List<Long>, List<UserResponse>> batchFunction;
+        private Batch open; // Batch new lookups join, guarded by the Source monitor
+
+        private Source(Function<List<Long>, List<UserResponse>> batchFunction) {
+            this.batchFunction = batchFunction;
+        }
+    }
+
+    private static final class Batch {
+
+        private final Thread leader; // Waits maxDelay, woken early when another lookup fills the batch
+        private final Map<Long, CompletableFuture<UserResponse>> users = new LinkedHashMap<>();
+
+        private Batch(Thread leader) {
+            this.leader = leader;
+        }
+    }
+}
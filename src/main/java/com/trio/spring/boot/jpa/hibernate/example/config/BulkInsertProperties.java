@@ -0,0 +1,17 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated // A bad value fails startup instead of the first bulk insert
+@ConfigurationProperties(prefix = "users.bulk")
+public class BulkInsertProperties {
+
+    @Min(1) // 0 would never advance the chunked loops
+    private int batchSize = 50; // Number of inserts sent per JDBC batch before the persistence context is flushed and cleared
+}
@@ -0,0 +1,25 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "users.datasource.pool")
+public class ConnectionPoolProperties {
+
+    private Integer maximumPoolSize; // Defaults to core count * 2 + 1, the HikariCP sizing formula with one effective spindle
+    private Integer minimumIdle; // Defaults to maximumPoolSize, a fixed-size pool as HikariCP recommends
+    private Duration connectionTimeout = Duration.ofSeconds(5); // A request waiting longer than this for a connection fails instead of queueing
+    private Duration leakDetectionThreshold = Duration.ofMinutes(2); // A connection held longer than this is logged with the stack trace that took it
+    private Map<String, String> dataSourceProperties = new LinkedHashMap<>(); // Passed to the JDBC driver, e.g. its prepared statement cache settings
+
+    public int resolveMaximumPoolSize() {
+        return maximumPoolSize != null ? maximumPoolSize : Runtime.getRuntime().availableProcessors() * 2 + 1;
+    }
+}
@@ -0,0 +1,34 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "users.http-cache")
+public class HttpCacheProperties {
+
+    private Endpoint byId = new Endpoint(); // GET /{userId} of every access style
+    private Endpoint list = new Endpoint(); // GET / and GET /page of every access style
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+
+        private Duration maxAge = Duration.ZERO; // Zero sends no-cache: clients may store the response but revalidate it with its ETag every time
+        private Duration sharedMaxAge; // s-maxage for CDNs and proxies, unset means they follow max-age
+        private boolean cachePrivate; // Only the client may store the response, not shared caches
+
+        public CacheControl toCacheControl() {
+            CacheControl cacheControl = maxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(maxAge).mustRevalidate();
+            if (sharedMaxAge != null) {
+                cacheControl = cacheControl.sMaxAge(sharedMaxAge);
+            }
+            return cachePrivate ? cacheControl.cachePrivate() : cacheControl.cachePublic();
+        }
+    }
+}
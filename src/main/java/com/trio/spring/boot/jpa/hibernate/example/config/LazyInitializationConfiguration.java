@@ -0,0 +1,39 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Defers beans that no request but their own needs, like the OpenAPI documentation, from startup to first use.
+// spring.main.lazy-initialization would defer every bean, and with them the pools, Hibernate and the search index, to the
+// first request.
+@Configuration(proxyBeanMethods = false)
+public class LazyInitializationConfiguration {
+
+    // Static, a BeanFactoryPostProcessor runs before any other bean exists, so properties are bound by hand
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonCriticalBeans(Environment environment) {
+        StartupProperties properties = Binder.get(environment).bindOrCreate("users.startup", StartupProperties.class);
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                String declaringClassName = declaringClassName(definition);
+                if (declaringClassName != null && properties.getLazyPackages().stream().anyMatch(declaringClassName::startsWith)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    // The configuration class of a @Bean method, the bean class otherwise
+    private static String declaringClassName(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+            return annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return definition.getBeanClassName();
+    }
+}
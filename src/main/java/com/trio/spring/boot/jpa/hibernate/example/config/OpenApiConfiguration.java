@@ -4,11 +4,13 @@ import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 @Configuration
 public class OpenApiConfiguration {
 
     @Bean
+    @Lazy // Only read by springdoc, which builds the documentation on the first /v3/api-docs request
     public OpenAPI customOpenAPI() {
         return new OpenAPI()
                 .info(new Info()
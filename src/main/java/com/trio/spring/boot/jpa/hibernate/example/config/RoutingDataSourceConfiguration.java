@@ -0,0 +1,94 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import com.trio.spring.boot.jpa.hibernate.example.datasource.ConnectionLimitingDataSource;
+import com.trio.spring.boot.jpa.hibernate.example.datasource.ReplicaRoutingDataSource;
+import com.trio.spring.boot.jpa.hibernate.example.datasource.StatementLoggingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class) // DataSourceAutoConfiguration backs off once the R2DBC ConnectionFactory exists
+public class RoutingDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, ConnectionPoolProperties poolProperties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        configurePool(dataSource, poolProperties); // Explicit spring.datasource.hikari settings are bound afterwards and still win
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, RoutingDataSourceProperties properties,
+                                                             ConnectionPoolProperties poolProperties, StatementLogProperties statementLogProperties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry, Environment environment) {
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (RoutingDataSourceProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            dataSource.setPoolName("replica-" + replica.getName());
+            dataSource.setReadOnly(true);
+            configurePool(dataSource, poolProperties);
+            // Actuator only binds pool metrics of DataSource beans, the replica pools are not beans so they are bound here
+            meterRegistry.ifAvailable(registry -> dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.put(replica.getName(), dataSource);
+        }
+        Function<HikariDataSource, DataSource> connectionLimit = Threading.VIRTUAL.isActive(environment)
+                ? RoutingDataSourceConfiguration::limitConnections
+                : pool -> pool; // Platform threads are already capped by the Tomcat thread pool
+        if (statementLogProperties.isEnabled()) {
+            // Outside the connection limit, so the logged acquire time includes waiting for a permit
+            Function<HikariDataSource, DataSource> limited = connectionLimit;
+            connectionLimit = pool -> new StatementLoggingDataSource(limited.apply(pool), pool.getPoolName(),
+                    statementLogProperties.getSlowThreshold(), statementLogProperties.getSampleRate());
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, connectionLimit, properties.getLoadBalancing(), properties.getHealthCheck());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        // The physical connection is only fetched at the first statement, by then Spring transactions and the read paths of the
+        // Session and EntityManager services have called Connection.setReadOnly(true), so the proxy knows which pool to use.
+        // Writes use the routing data source's resolved default, the primary behind the same connection limit as read fallbacks.
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRoutingDataSource.getResolvedDefaultDataSource());
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource); // Read-only connections come from a replica, all others from the primary
+        return dataSource;
+    }
+
+    private static DataSource limitConnections(HikariDataSource pool) {
+        return new ConnectionLimitingDataSource(pool, pool.getMaximumPoolSize(), Duration.ofMillis(pool.getConnectionTimeout()));
+    }
+
+    private static void configurePool(HikariDataSource dataSource, ConnectionPoolProperties poolProperties) {
+        int maximumPoolSize = poolProperties.resolveMaximumPoolSize();
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setMinimumIdle(poolProperties.getMinimumIdle() != null ? poolProperties.getMinimumIdle() : maximumPoolSize);
+        dataSource.setConnectionTimeout(poolProperties.getConnectionTimeout().toMillis());
+        dataSource.setLeakDetectionThreshold(poolProperties.getLeakDetectionThreshold().toMillis());
+        poolProperties.getDataSourceProperties().forEach(dataSource::addDataSourceProperty);
+    }
+}
@@ -0,0 +1,40 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import com.trio.spring.boot.jpa.hibernate.example.datasource.ReplicaLoadBalancing;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "users.datasource")
+public class RoutingDataSourceProperties {
+
+    private List<Replica> replicas = new ArrayList<>(); // Read-only connections are spread over these, everything else uses spring.datasource
+    private ReplicaLoadBalancing loadBalancing = ReplicaLoadBalancing.ROUND_ROBIN;
+    private HealthCheck healthCheck = new HealthCheck();
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+    }
+
+    @Getter
+    @Setter
+    public static class HealthCheck {
+
+        private Duration interval = Duration.ofSeconds(5); // How often every replica is validated and its lag measured
+        private Duration timeout = Duration.ofSeconds(1); // A replica that does not answer within this is taken out of rotation
+        private Duration maxLag = Duration.ofSeconds(10); // A replica further behind the primary than this is taken out of rotation
+        private String lagQuery; // Returns the replication lag in seconds, e.g. on PostgreSQL: SELECT EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()); lag is not checked when unset
+    }
+}
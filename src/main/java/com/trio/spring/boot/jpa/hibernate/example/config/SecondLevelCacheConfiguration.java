@@ -0,0 +1,54 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+    public static final String USERS_REGION = "users";
+    public static final String QUERY_RESULTS_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    public static final String UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        CachingProvider cachingProvider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // A unique URI per application context, so several contexts in one JVM (tests, benchmarks) never share cached rows
+        CacheManager cacheManager = cachingProvider.getCacheManager(
+                URI.create("users-second-level-cache-" + UUID.randomUUID()), cachingProvider.getDefaultClassLoader());
+        cacheManager.createCache(USERS_REGION, boundedRegion(properties.getEntity()));
+        cacheManager.createCache(QUERY_RESULTS_REGION, boundedRegion(properties.getQueryResults()));
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, unboundedRegion()); // Timestamps must outlive every cached query result, so they are never evicted
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager); // Hand the configured regions to Hibernate's JCache region factory
+    }
+
+    private static CaffeineConfiguration<Object, Object> boundedRegion(SecondLevelCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = unboundedRegion();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(region.getTimeToLive().toNanos()));
+        return configuration;
+    }
+
+    private static CaffeineConfiguration<Object, Object> unboundedRegion() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(true); // Publishes the JCache statistics MBean that carries the eviction count
+        return configuration;
+    }
+}
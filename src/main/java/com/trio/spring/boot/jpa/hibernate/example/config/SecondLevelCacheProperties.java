@@ -0,0 +1,28 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "users.cache")
+public class SecondLevelCacheProperties {
+
+    private Region entity = new Region(10_000, Duration.ofMinutes(10)); // Cached Users entities, looked up by id
+    private Region queryResults = new Region(1_000, Duration.ofMinutes(5)); // Id lists of cacheable queries such as findByFirstName
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+
+        private long maximumSize; // Entries beyond this are evicted, least recently/frequently used first
+        private Duration timeToLive; // Entries expire this long after they were written
+    }
+}
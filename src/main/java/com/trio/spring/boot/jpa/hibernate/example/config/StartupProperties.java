@@ -0,0 +1,15 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "users.startup")
+public class StartupProperties {
+
+    private List<String> lazyPackages = List.of("org.springdoc."); // Beans declared in these packages are created on first use instead of at startup
+}
@@ -0,0 +1,17 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "users.sql-log")
+public class StatementLogProperties {
+
+    private boolean enabled = true; // false leaves the pools unwrapped, so statements pay nothing at all
+    private Duration slowThreshold = Duration.ofMillis(200); // Statements running at least this long are always logged, with their bind values
+    private double sampleRate = 0.0; // Share of the faster statements that is logged too, e.g. 0.01 for one in a hundred
+}
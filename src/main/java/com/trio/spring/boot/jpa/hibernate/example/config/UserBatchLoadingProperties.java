@@ -0,0 +1,24 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "users.batch-loading")
+public class UserBatchLoadingProperties {
+
+    private boolean enabled = false; // Opt-in, a lone lookup then waits up to maxDelay for company before it queries
+    private Duration maxDelay = Duration.ofMillis(2); // Longest the first lookup of a batch waits for other ids
+    @Min(1)
+    @Max(UserPageResponse.MAX_PAGE_SIZE) // getUsersByIds rejects more ids, failing every lookup that joined the batch
+    private int maxBatchSize = 100; // A batch with this many distinct ids is loaded at once, without waiting for maxDelay
+}
@@ -0,0 +1,20 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "users.ingestion")
+public class UserIngestionProperties {
+
+    private boolean enabled = false; // Opt-in, exposes /api/v1/users/ingestion and starts the writer thread
+    private int queueCapacity = 8_192; // Requests waiting for the writer beyond this are rejected with 429 (rounded up to a power of two)
+    private int maxBatchSize = 500; // Most users written in one transaction
+    private Duration maxLatency = Duration.ofMillis(20); // Longest a queued user waits for its batch to fill before it is written anyway
+    private Duration ticketRetention = Duration.ofMinutes(10); // How long the outcome of a ticket can be looked up after it was written
+    private long maxTickets = 100_000; // Oldest outcomes are forgotten beyond this
+}
@@ -0,0 +1,63 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Spring cache of the UserResponse DTOs returned by the by-id lookups, in front of the second-level cache: a hit skips the
+// transaction, the session and the converter, not just the SQL
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1) // Outside the transaction interceptor, so a hit never opens a transaction or borrows a connection
+public class UserResponseCacheConfiguration {
+
+    public static final String USER_RESPONSES_CACHE = "userResponses";
+
+    @Bean
+    public CacheManager userResponseCacheManager(UserResponseCacheProperties properties) {
+        if (!properties.isEnabled()) {
+            return new NoOpCacheManager();
+        }
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()); // Hit, miss and eviction counts, published to Micrometer as cache.gets and cache.evictions
+        cacheManager.setCacheNames(List.of(USER_RESPONSES_CACHE)); // Created up front, so the metrics are bound at startup
+        cacheManager.setAllowNullValues(false);
+        // Backed by an AsyncCache: a miss inserts a pending future and runs the loader outside Caffeine's map compute, so a load parked
+        // in the batch loader does not hold the hash bin lock that writes and evictions of other keys in that bin need. Concurrent
+        // misses for the same id still wait on that one future. @Cacheable(sync = true) loads through the synchronous view on the caller's thread.
+        cacheManager.setAsyncCacheMode(true);
+        // Evictions inside a transaction wait for its commit; evicting earlier would let a concurrent miss cache the old row again
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    // Micrometer only publishes load times of a LoadingCache, @Cacheable(sync = true) loads through Cache.get(key, loader) instead
+    @Bean
+    public MeterBinder userResponseCacheLoadMetrics(CacheManager userResponseCacheManager) {
+        return registry -> {
+            if (userResponseCacheManager.getCache(USER_RESPONSES_CACHE) instanceof TransactionAwareCacheDecorator decorator
+                    && decorator.getTargetCache() instanceof CaffeineCache caffeineCache) {
+                Cache<Object, Object> cache = caffeineCache.getNativeCache();
+                FunctionTimer.builder("cache.load.duration", cache, c -> c.stats().loadCount(), c -> c.stats().totalLoadTime(), TimeUnit.NANOSECONDS)
+                        .tag("cache", USER_RESPONSES_CACHE)
+                        .description("Time spent loading users on a miss, concurrent misses for one id count once")
+                        .register(registry);
+            }
+        };
+    }
+}
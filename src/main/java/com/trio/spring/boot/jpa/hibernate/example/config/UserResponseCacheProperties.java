@@ -0,0 +1,17 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "users.response-cache")
+public class UserResponseCacheProperties {
+
+    private boolean enabled = true; // Disabled, every by-id lookup goes through Hibernate and its second-level cache again
+    private long maximumSize = 10_000; // UserResponse DTOs kept, Caffeine's W-TinyLFU admits and evicts by access frequency and recency
+    private Duration timeToLive = Duration.ofMinutes(10); // Upper bound on staleness for writes that bypass the services
+}
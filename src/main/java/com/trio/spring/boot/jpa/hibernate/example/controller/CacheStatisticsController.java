@@ -0,0 +1,25 @@
+package com.trio.spring.boot.jpa.hibernate.example.controller;
+
+import com.trio.spring.boot.jpa.hibernate.example.controller.api.CacheStatisticsApi;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.CacheRegionStatisticsResponse;
+import com.trio.spring.boot.jpa.hibernate.example.service.CacheStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/cache")
+public class CacheStatisticsController implements CacheStatisticsApi {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    @GetMapping("/statistics")
+    public ResponseEntity<List<CacheRegionStatisticsResponse>> getSecondLevelCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getSecondLevelCacheStatistics());
+    }
+}
@@ -1,13 +1,21 @@
 package com.trio.spring.boot.jpa.hibernate.example.controller;
 
 import com.trio.spring.boot.jpa.hibernate.example.controller.api.EntityManagerOperationsExampleApi;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UpdateMode;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.export.UserExportFormat;
+import com.trio.spring.boot.jpa.hibernate.example.export.UserExportWriter;
+import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
 import com.trio.spring.boot.jpa.hibernate.example.service.EntityManagerOperationsExampleService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,15 +25,36 @@ import java.util.List;
 public class EntityManagerOperationsExampleController implements EntityManagerOperationsExampleApi {
 
     private final EntityManagerOperationsExampleService entityManagerOperationsExampleService;
+    private final UserExportWriter userExportWriter;
+    private final UsersHttpCache usersHttpCache;
 
     @GetMapping
-    public ResponseEntity<List<UserResponse>> getUsers() {
-        return ResponseEntity.ok(entityManagerOperationsExampleService.findAllUsers());
+    public ResponseEntity<List<UserResponse>> getUsers(WebRequest webRequest) {
+        return usersHttpCache.list(webRequest, entityManagerOperationsExampleService::findAllUsers);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<UserResponse>> getUsersByIds(@RequestParam List<Long> ids, WebRequest webRequest) {
+        return usersHttpCache.list(webRequest, () -> entityManagerOperationsExampleService.getUsersByIds(ids));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<UserPageResponse> getUsersPage(@RequestParam(required = false) Long afterId,
+                                                         @RequestParam(defaultValue = "20") int limit, WebRequest webRequest) {
+        return usersHttpCache.page(webRequest, () -> entityManagerOperationsExampleService.findUsersPage(afterId, limit));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "NDJSON") UserExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users." + format.getFileExtension())
+                .body(userExportWriter.stream(format, entityManagerOperationsExampleService::exportUsers));
     }
 
     @GetMapping("/{userId}")
     public ResponseEntity<UserResponse> getUserById(@PathVariable Long userId) {
-        return ResponseEntity.ok(entityManagerOperationsExampleService.getUserById(userId));
+        return usersHttpCache.byId(entityManagerOperationsExampleService.getUserById(userId));
     }
 
     @PostMapping
@@ -33,9 +62,27 @@ public class EntityManagerOperationsExampleController implements EntityManagerOp
         return ResponseEntity.status(HttpStatus.CREATED).body(entityManagerOperationsExampleService.saveUser(userRequest).getId());
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Long>> createUsers(@RequestBody List<UserRequest> userRequests) {
+        List<Long> ids = entityManagerOperationsExampleService.saveUsers(userRequests).stream()
+                .map(Users::getId)
+                .toList();
+        return ResponseEntity.status(HttpStatus.CREATED).body(ids);
+    }
+
     @PutMapping("/{userId}")
-    public ResponseEntity<Long> updateUser(@PathVariable Long userId, @RequestBody UserRequest userRequest) {
-        return ResponseEntity.ok(entityManagerOperationsExampleService.updateUser(userId, userRequest).getId());
+    public ResponseEntity<Long> updateUser(@PathVariable Long userId, @RequestBody UserRequest userRequest,
+                                           @RequestParam(defaultValue = "ENTITY") UpdateMode mode,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = UserVersionETag.parseIfMatch(userId, ifMatch);
+        if (mode == UpdateMode.DIRECT) {
+            entityManagerOperationsExampleService.updateUserDirect(userId, userRequest, expectedVersion);
+            return ResponseEntity.ok(userId); // The bulk UPDATE does not read the new version back, so there is no ETag to send
+        }
+        Users updatedUser = entityManagerOperationsExampleService.updateUser(userId, userRequest, expectedVersion);
+        return ResponseEntity.ok()
+                .eTag(UserVersionETag.of(updatedUser.getVersion()))
+                .body(updatedUser.getId());
     }
 
     @DeleteMapping("/{userId}")
@@ -44,8 +91,14 @@ public class EntityManagerOperationsExampleController implements EntityManagerOp
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping
+    public ResponseEntity<Integer> deleteUsers(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(entityManagerOperationsExampleService.deleteUsers(ids));
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<List<UserResponse>> searchUsers(@RequestParam String searchParam) {
-        return ResponseEntity.ok(entityManagerOperationsExampleService.findAllBySearchParam(searchParam));
+    public ResponseEntity<List<UserResponse>> searchUsers(@RequestParam String searchParam,
+                                                          @RequestParam(defaultValue = "20") int maxResults) {
+        return ResponseEntity.ok(entityManagerOperationsExampleService.findAllBySearchParam(searchParam, maxResults));
     }
 }
\ No newline at end of file
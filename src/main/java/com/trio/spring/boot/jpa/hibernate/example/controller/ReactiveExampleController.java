@@ -0,0 +1,34 @@
+package com.trio.spring.boot.jpa.hibernate.example.controller;
+
+import com.trio.spring.boot.jpa.hibernate.example.controller.api.ReactiveExampleApi;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.service.ReactiveExampleService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/users/reactive")
+public class ReactiveExampleController implements ReactiveExampleApi {
+
+    private final ReactiveExampleService reactiveExampleService;
+
+    // NDJSON is written element by element as the client reads it, application/json collects the Flux into one array first
+    @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<UserResponse> getUsers() {
+        return reactiveExampleService.findAllUsers();
+    }
+
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<UserResponse> searchUsers(@RequestParam String searchParam) {
+        return reactiveExampleService.findAllBySearchParam(searchParam);
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<UserResponse> getUserById(@PathVariable Long userId) {
+        return reactiveExampleService.getUserById(userId);
+    }
+}
@@ -1,13 +1,21 @@
 package com.trio.spring.boot.jpa.hibernate.example.controller;
 
 import com.trio.spring.boot.jpa.hibernate.example.controller.api.SpringDataJpaExampleApi;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UpdateMode;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.export.UserExportFormat;
+import com.trio.spring.boot.jpa.hibernate.example.export.UserExportWriter;
+import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
 import com.trio.spring.boot.jpa.hibernate.example.service.SpringDataJpaExampleService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,15 +25,54 @@ import java.util.List;
 public class SpringDataJpaExampleController implements SpringDataJpaExampleApi {
 
     private final SpringDataJpaExampleService springDataJpaExampleService;
+    private final UserExportWriter userExportWriter;
+    private final UsersHttpCache usersHttpCache;
 
     @GetMapping
-    public ResponseEntity<List<UserResponse>> getUsers() {
-        return ResponseEntity.ok(springDataJpaExampleService.findAllUsers());
+    public ResponseEntity<List<UserResponse>> getUsers(WebRequest webRequest) {
+        return usersHttpCache.list(webRequest, springDataJpaExampleService::findAllUsers);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<UserResponse>> getUsersByIds(@RequestParam List<Long> ids, WebRequest webRequest) {
+        return usersHttpCache.list(webRequest, () -> springDataJpaExampleService.getUsersByIds(ids));
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<UserPageResponse> getUsersPage(@RequestParam(required = false) Long afterId,
+                                                         @RequestParam(defaultValue = "20") int limit, WebRequest webRequest) {
+        return usersHttpCache.page(webRequest, () -> springDataJpaExampleService.findUsersPage(afterId, limit));
+    }
+
+    @GetMapping("/by-first-name")
+    public ResponseEntity<List<UserResponse>> getUsersByFirstName(@RequestParam String firstName,
+                                                                  @RequestParam(defaultValue = "false") boolean ignoreCase) {
+        return ResponseEntity.ok(springDataJpaExampleService.findUsersByFirstName(firstName, ignoreCase));
+    }
+
+    @GetMapping("/by-last-name")
+    public ResponseEntity<List<UserResponse>> getUsersByLastName(@RequestParam String lastName,
+                                                                 @RequestParam(defaultValue = "false") boolean ignoreCase) {
+        return ResponseEntity.ok(springDataJpaExampleService.findUsersByLastName(lastName, ignoreCase));
+    }
+
+    @GetMapping("/by-name")
+    public ResponseEntity<List<UserResponse>> getUsersByName(@RequestParam String firstName, @RequestParam String lastName,
+                                                             @RequestParam(defaultValue = "false") boolean ignoreCase) {
+        return ResponseEntity.ok(springDataJpaExampleService.findUsersByName(firstName, lastName, ignoreCase));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "NDJSON") UserExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users." + format.getFileExtension())
+                .body(userExportWriter.stream(format, springDataJpaExampleService::exportUsers));
     }
 
     @GetMapping("/{userId}")
     public ResponseEntity<UserResponse> getUserById(@PathVariable Long userId) {
-        return ResponseEntity.ok(springDataJpaExampleService.getById(userId));
+        return usersHttpCache.byId(springDataJpaExampleService.getById(userId));
     }
 
     @PostMapping
@@ -33,9 +80,27 @@ public class SpringDataJpaExampleController implements SpringDataJpaExampleApi {
         return ResponseEntity.status(HttpStatus.CREATED).body(springDataJpaExampleService.saveUser(userRequest).getId());
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Long>> createUsers(@RequestBody List<UserRequest> userRequests) {
+        List<Long> ids = springDataJpaExampleService.saveUsers(userRequests).stream()
+                .map(Users::getId)
+                .toList();
+        return ResponseEntity.status(HttpStatus.CREATED).body(ids);
+    }
+
     @PutMapping("/{userId}")
-    public ResponseEntity<Long> updateUser(@PathVariable Long userId, @RequestBody UserRequest userRequest) {
-        return ResponseEntity.ok(springDataJpaExampleService.updateUser(userId, userRequest).getId());
+    public ResponseEntity<Long> updateUser(@PathVariable Long userId, @RequestBody UserRequest userRequest,
+                                           @RequestParam(defaultValue = "ENTITY") UpdateMode mode,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = UserVersionETag.parseIfMatch(userId, ifMatch);
+        if (mode == UpdateMode.DIRECT) {
+            springDataJpaExampleService.updateUserDirect(userId, userRequest, expectedVersion);
+            return ResponseEntity.ok(userId); // The bulk UPDATE does not read the new version back, so there is no ETag to send
+        }
+        Users updatedUser = springDataJpaExampleService.updateUser(userId, userRequest, expectedVersion);
+        return ResponseEntity.ok()
+                .eTag(UserVersionETag.of(updatedUser.getVersion()))
+                .body(updatedUser.getId());
     }
 
     @DeleteMapping("/{userId}")
@@ -43,4 +108,9 @@ public class SpringDataJpaExampleController implements SpringDataJpaExampleApi {
         springDataJpaExampleService.deleteUser(userId);
         return ResponseEntity.noContent().build();
     }
+
+    @DeleteMapping
+    public ResponseEntity<Integer> deleteUsers(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(springDataJpaExampleService.deleteUsers(ids));
+    }
 }
@@ -0,0 +1,35 @@
+package com.trio.spring.boot.jpa.hibernate.example.controller;
+
+import com.trio.spring.boot.jpa.hibernate.example.controller.api.UserIngestionApi;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.IngestionTicketResponse;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.ingestion.UserIngestionQueue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/users/ingestion")
+@ConditionalOnProperty(prefix = "users.ingestion", name = "enabled", havingValue = "true")
+public class UserIngestionController implements UserIngestionApi {
+
+    private final UserIngestionQueue userIngestionQueue;
+
+    @PostMapping
+    public ResponseEntity<IngestionTicketResponse> createUser(@RequestBody UserRequest userRequest) {
+        IngestionTicketResponse ticket = userIngestionQueue.submit(userRequest);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{ticket}").buildAndExpand(ticket.getTicket()).toUri())
+                .body(ticket);
+    }
+
+    @GetMapping("/{ticket}")
+    public ResponseEntity<IngestionTicketResponse> getTicket(@PathVariable UUID ticket) {
+        return ResponseEntity.ok(userIngestionQueue.getTicket(ticket));
+    }
+}
@@ -0,0 +1,31 @@
+package com.trio.spring.boot.jpa.hibernate.example.controller;
+
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserVersionMismatchException;
+
+// Strong ETag built from the user's @Version: it changes with every update, so GET can answer If-None-Match with 304
+// and PUT can turn If-Match into an optimistic lock check
+final class UserVersionETag {
+
+    private UserVersionETag() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Returns the version If-Match asks for, or null when the header is absent or "*" (any current version)
+    static Long parseIfMatch(Long userId, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.length() < 3 || !etag.startsWith("\"") || !etag.endsWith("\"")) {
+            throw new UserVersionMismatchException(userId, ifMatch); // Weak ETags and lists never match a single strong ETag
+        }
+        try {
+            return Long.valueOf(etag.substring(1, etag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new UserVersionMismatchException(userId, ifMatch);
+        }
+    }
+}
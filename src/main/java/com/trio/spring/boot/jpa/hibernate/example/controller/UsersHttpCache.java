@@ -0,0 +1,50 @@
+package com.trio.spring.boot.jpa.hibernate.example.controller;
+
+import com.trio.spring.boot.jpa.hibernate.example.config.HttpCacheProperties;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+// Conditional GET and Cache-Control for the user read endpoints shared by the three access styles
+@Component
+@RequiredArgsConstructor
+class UsersHttpCache {
+
+    private final HttpCacheProperties httpCacheProperties;
+
+    // Lists are validated by the ids and versions of the users the query returned, so the query runs on every request, on a replica
+    // when one is configured; a matching If-None-Match skips serialization and the body
+    ResponseEntity<List<UserResponse>> list(WebRequest webRequest, Supplier<List<UserResponse>> query) {
+        List<UserResponse> users = query.get();
+        return conditional(webRequest, UsersListETag.of(users), users);
+    }
+
+    ResponseEntity<UserPageResponse> page(WebRequest webRequest, Supplier<UserPageResponse> query) {
+        UserPageResponse page = query.get();
+        return conditional(webRequest, UsersListETag.of(page.getContent(), page.getNextCursor()), page);
+    }
+
+    // A single user is validated by its own @Version, which also holds across instances; a matching If-None-Match skips serialization
+    ResponseEntity<UserResponse> byId(UserResponse user) {
+        return ResponseEntity.ok()
+                .eTag(UserVersionETag.of(user.getVersion()))
+                .cacheControl(httpCacheProperties.getById().toCacheControl())
+                .body(user);
+    }
+
+    private <T> ResponseEntity<T> conditional(WebRequest webRequest, String eTag, T body) {
+        CacheControl cacheControl = httpCacheProperties.getList().toCacheControl();
+        if (webRequest.checkNotModified(eTag)) { // Also sets the ETag on the response
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).body(body);
+    }
+}
@@ -0,0 +1,47 @@
+package com.trio.spring.boot.jpa.hibernate.example.controller;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+// Strong ETag for a list of users, an MD5 digest of the id and @Version of every user in it. Every write that changes a user bumps
+// its version, and inserts and deletes change the ids, so the ETag changes with the listed rows. It is derived from the rows the
+// query returned, so it holds across instances and replicas: a lagging replica's older rows carry their own, older ETag.
+final class UsersListETag {
+
+    private UsersListETag() {
+    }
+
+    static String of(List<UserResponse> users) {
+        return of(users, null);
+    }
+
+    // A page ETag also covers the cursor, which moves when users are added behind the last page
+    static String of(List<UserResponse> users, Long nextCursor) {
+        MessageDigest digest = md5();
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES);
+        for (UserResponse user : users) {
+            buffer.clear();
+            buffer.putLong(user.getId()).putLong(user.getVersion() != null ? user.getVersion() : -1);
+            digest.update(buffer.array());
+        }
+        if (nextCursor != null) {
+            buffer.clear();
+            buffer.put((byte) 1).putLong(nextCursor); // 9 bytes, so a cursor never reads like another user
+            digest.update(buffer.array(), 0, buffer.position());
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest()) + "\"";
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5"); // Not a security boundary, the same digest Spring's ShallowEtagHeaderFilter uses
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every Java platform must provide MD5
+        }
+    }
+}
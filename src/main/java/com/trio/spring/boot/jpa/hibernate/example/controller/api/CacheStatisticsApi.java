@@ -0,0 +1,30 @@
+package com.trio.spring.boot.jpa.hibernate.example.controller.api;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.CacheRegionStatisticsResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+@Tag(name = "Cache Statistics", description = "Second-level cache statistics of the Users entity and query regions")
+public interface CacheStatisticsApi {
+
+    @Operation(
+            summary = "Get second-level cache statistics",
+            description = "Retrieves hit, miss, put and eviction counts for each Hibernate second-level cache region"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Cache statistics retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = CacheRegionStatisticsResponse.class))
+            )
+    )
+    ResponseEntity<List<CacheRegionStatisticsResponse>> getSecondLevelCacheStatistics();
+}
@@ -1,15 +1,21 @@
 package com.trio.spring.boot.jpa.hibernate.example.controller.api;
 
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UpdateMode;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.export.UserExportFormat;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -28,7 +34,78 @@ public interface EntityManagerOperationsExampleApi {
                     schema = @Schema(implementation = UserResponse.class)
             )
     )
-    ResponseEntity<List<UserResponse>> getUsers();
+    @ApiResponse(
+            responseCode = "304",
+            description = "Listed users have not changed since the ETag sent in If-None-Match"
+    )
+    ResponseEntity<List<UserResponse>> getUsers(WebRequest webRequest);
+
+    @Operation(
+            summary = "Get users by IDs",
+            description = "Retrieves the users with the given IDs in request order with one multi-id query, skipping unknown IDs, using Entity Manager"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Users retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = UserResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "304",
+            description = "Listed users have not changed since the ETag sent in If-None-Match"
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "More than " + UserPageResponse.MAX_PAGE_SIZE + " distinct IDs requested"
+    )
+    ResponseEntity<List<UserResponse>> getUsersByIds(
+            @Parameter(description = "Comma-separated user IDs, at most " + UserPageResponse.MAX_PAGE_SIZE + " distinct ones", required = true, example = "1000,1001,1002")
+            List<Long> ids,
+            WebRequest webRequest
+    );
+
+    @Operation(
+            summary = "Get users page",
+            description = "Retrieves a page of users ordered by ID, starting after the given cursor (keyset pagination) using Entity Manager"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Users page retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = UserPageResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "304",
+            description = "Listed users have not changed since the ETag sent in If-None-Match"
+    )
+    ResponseEntity<UserPageResponse> getUsersPage(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page, omit for the first page", example = "1000")
+            Long afterId,
+            @Parameter(description = "Maximum number of users to return (capped at " + UserPageResponse.MAX_PAGE_SIZE + ")", example = "20")
+            int limit,
+            WebRequest webRequest
+    );
+
+    @Operation(
+            summary = "Export all users",
+            description = "Streams all users as NDJSON or CSV without loading the whole table into memory using Entity Manager"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Users exported successfully",
+            content = {
+                    @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = UserResponse.class)),
+                    @Content(mediaType = "text/csv")
+            }
+    )
+    ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Export format", example = "NDJSON")
+            UserExportFormat format
+    );
 
     @Operation(
             summary = "Get user by ID",
@@ -42,6 +119,10 @@ public interface EntityManagerOperationsExampleApi {
                     schema = @Schema(implementation = UserResponse.class)
             )
     )
+    @ApiResponse(
+            responseCode = "304",
+            description = "User has not changed since the ETag sent in If-None-Match"
+    )
     ResponseEntity<UserResponse> getUserById(
             @Parameter(description = "User ID", required = true, example = "1")
             Long userId
@@ -64,6 +145,23 @@ public interface EntityManagerOperationsExampleApi {
             UserRequest userRequest
     );
 
+    @Operation(
+            summary = "Create users in bulk",
+            description = "Creates multiple users in one transaction with JDBC batched inserts using Entity Manager"
+    )
+    @ApiResponse(
+            responseCode = "201",
+            description = "Users created successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = Long.class))
+            )
+    )
+    ResponseEntity<List<Long>> createUsers(
+            @Parameter(description = "Users to create", required = true)
+            List<UserRequest> userRequests
+    );
+
     @Operation(
             summary = "Update user",
             description = "Updates existing user information using Entity Manager"
@@ -76,16 +174,28 @@ public interface EntityManagerOperationsExampleApi {
                     schema = @Schema(implementation = Long.class)
             )
     )
+    @ApiResponse(
+            responseCode = "409",
+            description = "User was updated concurrently while this update was being written"
+    )
+    @ApiResponse(
+            responseCode = "412",
+            description = "User no longer matches the ETag sent in If-Match"
+    )
     ResponseEntity<Long> updateUser(
             @Parameter(description = "ID of user to update", required = true, example = "1")
             Long userId,
             @Parameter(description = "Updated user information", required = true)
-            UserRequest userRequest
+            UserRequest userRequest,
+            @Parameter(description = "ENTITY loads and updates the entity in one unit of work, DIRECT issues a single UPDATE statement", example = "ENTITY")
+            UpdateMode mode,
+            @Parameter(description = "ETag from a previous GET, the update only succeeds while the user is still at that version", example = "\"0\"")
+            String ifMatch
     );
 
     @Operation(
             summary = "Delete user",
-            description = "Deletes user with specified ID using Entity Manager"
+            description = "Deletes user with specified ID with a single DELETE statement using an Entity Manager bulk query"
     )
     @ApiResponse(
             responseCode = "204",
@@ -96,9 +206,27 @@ public interface EntityManagerOperationsExampleApi {
             Long userId
     );
 
+    @Operation(
+            summary = "Delete users by ID list",
+            description = "Deletes all users with the given IDs with one DELETE statement using an Entity Manager bulk query; IDs that do not exist are ignored"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Number of users deleted",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = Integer.class)
+            )
+    )
+    ResponseEntity<Integer> deleteUsers(
+            @Parameter(description = "IDs of users to delete", required = true, example = "1,2,3")
+            List<Long> ids
+    );
+
     @Operation(
             summary = "Search users",
-            description = "Searches users by first name or last name using Entity Manager"
+            description = "Searches users through a Lucene index: every word of the term has to match a first or last name prefix, falling back to "
+                    + "whole names with one typo. Returns the best maxResults matches; a blank term lists users in ID order"
     )
     @ApiResponse(
             responseCode = "200",
@@ -109,7 +237,9 @@ public interface EntityManagerOperationsExampleApi {
             )
     )
     ResponseEntity<List<UserResponse>> searchUsers(
-            @Parameter(description = "Search term (first name or last name)", required = true, example = "John")
-            String searchParam
+            @Parameter(description = "Search term, one or more first name or last name prefixes", required = true, example = "John")
+            String searchParam,
+            @Parameter(description = "Maximum number of users to return (capped at " + UserPageResponse.MAX_PAGE_SIZE + ")", example = "20")
+            int maxResults
     );
 }
\ No newline at end of file
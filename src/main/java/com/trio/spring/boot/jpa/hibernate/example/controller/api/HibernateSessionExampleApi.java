@@ -1,15 +1,22 @@
 package com.trio.spring.boot.jpa.hibernate.example.controller.api;
 
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UpdateMode;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.export.UserExportFormat;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -28,8 +35,82 @@ public interface HibernateSessionExampleApi {
                     schema = @Schema(implementation = UserResponse.class)
             )
     )
+    @ApiResponse(
+            responseCode = "304",
+            description = "Listed users have not changed since the ETag sent in If-None-Match"
+    )
     @GetMapping
-    ResponseEntity<List<UserResponse>> getUsers();
+    ResponseEntity<List<UserResponse>> getUsers(WebRequest webRequest);
+
+    @Operation(
+            summary = "Get users by IDs",
+            description = "Retrieves the users with the given IDs in request order with one multi-id query, skipping unknown IDs, using Hibernate Session"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Users retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = UserResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "304",
+            description = "Listed users have not changed since the ETag sent in If-None-Match"
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "More than " + UserPageResponse.MAX_PAGE_SIZE + " distinct IDs requested"
+    )
+    @GetMapping(params = "ids")
+    ResponseEntity<List<UserResponse>> getUsersByIds(
+            @Parameter(description = "Comma-separated user IDs, at most " + UserPageResponse.MAX_PAGE_SIZE + " distinct ones", required = true, example = "1000,1001,1002")
+            @RequestParam List<Long> ids,
+            WebRequest webRequest
+    );
+
+    @Operation(
+            summary = "Get users page",
+            description = "Retrieves a page of users ordered by ID, starting after the given cursor (keyset pagination) using Hibernate Session"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Users page retrieved successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = UserPageResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "304",
+            description = "Listed users have not changed since the ETag sent in If-None-Match"
+    )
+    @GetMapping("/page")
+    ResponseEntity<UserPageResponse> getUsersPage(
+            @Parameter(description = "Cursor returned as nextCursor by the previous page, omit for the first page", example = "1000")
+            @RequestParam(required = false) Long afterId,
+            @Parameter(description = "Maximum number of users to return (capped at " + UserPageResponse.MAX_PAGE_SIZE + ")", example = "20")
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest
+    );
+
+    @Operation(
+            summary = "Export all users",
+            description = "Streams all users as NDJSON or CSV without loading the whole table into memory using Hibernate Session"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Users exported successfully",
+            content = {
+                    @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = UserResponse.class)),
+                    @Content(mediaType = "text/csv")
+            }
+    )
+    @GetMapping("/export")
+    ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Export format", example = "NDJSON")
+            @RequestParam(defaultValue = "NDJSON") UserExportFormat format
+    );
 
     @Operation(
             summary = "Get user by ID",
@@ -43,6 +124,10 @@ public interface HibernateSessionExampleApi {
                     schema = @Schema(implementation = UserResponse.class)
             )
     )
+    @ApiResponse(
+            responseCode = "304",
+            description = "User has not changed since the ETag sent in If-None-Match"
+    )
     @GetMapping("/{userId}")
     ResponseEntity<UserResponse> getUserById(
             @Parameter(description = "User ID", required = true, example = "1")
@@ -67,6 +152,24 @@ public interface HibernateSessionExampleApi {
             @RequestBody UserRequest userRequest
     );
 
+    @Operation(
+            summary = "Create users in bulk",
+            description = "Creates multiple users in one transaction with JDBC batched inserts using Hibernate Session"
+    )
+    @ApiResponse(
+            responseCode = "201",
+            description = "Users created successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = Long.class))
+            )
+    )
+    @PostMapping("/bulk")
+    ResponseEntity<List<Long>> createUsers(
+            @Parameter(description = "Users to create", required = true)
+            @RequestBody List<UserRequest> userRequests
+    );
+
     @Operation(
             summary = "Update user",
             description = "Updates existing user information using Hibernate Session"
@@ -79,17 +182,29 @@ public interface HibernateSessionExampleApi {
                     schema = @Schema(implementation = Long.class)
             )
     )
+    @ApiResponse(
+            responseCode = "409",
+            description = "User was updated concurrently while this update was being written"
+    )
+    @ApiResponse(
+            responseCode = "412",
+            description = "User no longer matches the ETag sent in If-Match"
+    )
     @PutMapping("/{userId}")
     ResponseEntity<Long> updateUser(
             @Parameter(description = "ID of user to update", required = true, example = "1")
             @PathVariable Long userId,
             @Parameter(description = "Updated user information", required = true)
-            @RequestBody UserRequest userRequest
+            @RequestBody UserRequest userRequest,
+            @Parameter(description = "ENTITY loads and updates the entity in one session, DIRECT issues a single UPDATE statement", example = "ENTITY")
+            @RequestParam(defaultValue = "ENTITY") UpdateMode mode,
+            @Parameter(description = "ETag from a previous GET, the update only succeeds while the user is still at that version", example = "\"0\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     );
 
     @Operation(
             summary = "Delete user",
-            description = "Deletes user with specified ID using Hibernate Session"
+            description = "Deletes user with specified ID with a single DELETE statement using a Hibernate Session mutation query"
     )
     @ApiResponse(
             responseCode = "204",
@@ -100,4 +215,22 @@ public interface HibernateSessionExampleApi {
             @Parameter(description = "ID of user to delete", required = true, example = "1")
             @PathVariable Long userId
     );
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Delete users by ID list",
+            description = "Deletes all users with the given IDs with one DELETE statement using a Hibernate Session mutation query; IDs that do not exist are ignored"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Number of users deleted",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = Integer.class)
+            )
+    )
+    @DeleteMapping
+    ResponseEntity<Integer> deleteUsers(
+            @Parameter(description = "IDs of users to delete", required = true, example = "1,2,3")
+            @RequestParam List<Long> ids
+    );
+}
@@ -0,0 +1,67 @@
+package com.trio.spring.boot.jpa.hibernate.example.controller.api;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Tag(name = "Reactive", description = "Non-blocking read operations using R2DBC")
+public interface ReactiveExampleApi {
+
+    @Operation(
+            summary = "Get all users",
+            description = "Streams all users ordered by ID using R2DBC; rows are fetched as fast as the client reads them (NDJSON), or collected into one array for application/json"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Users streamed successfully",
+            content = @Content(
+                    mediaType = "application/x-ndjson",
+                    schema = @Schema(implementation = UserResponse.class)
+            )
+    )
+    Flux<UserResponse> getUsers();
+
+    @Operation(
+            summary = "Search users",
+            description = "Searches users by first name or last name prefix, ignoring case, on the indexed name columns using R2DBC; returns at most 20 users"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Search results streamed successfully",
+            content = @Content(
+                    mediaType = "application/x-ndjson",
+                    schema = @Schema(implementation = UserResponse.class)
+            )
+    )
+    Flux<UserResponse> searchUsers(
+            @Parameter(description = "Search term (first name or last name prefix)", required = true, example = "John")
+            String searchParam
+    );
+
+    @Operation(
+            summary = "Get user by ID",
+            description = "Retrieves a user by specified ID using R2DBC"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "User found successfully",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = UserResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "User not found"
+    )
+    Mono<UserResponse> getUserById(
+            @Parameter(description = "User ID", required = true, example = "1")
+            Long userId
+    );
+}
@@ -0,0 +1,63 @@
+package com.trio.spring.boot.jpa.hibernate.example.controller.api;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.IngestionTicketResponse;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+
+@Tag(name = "Async Ingestion", description = "Write-behind user creation through a queue drained in batched transactions (users.ingestion.enabled)")
+public interface UserIngestionApi {
+
+    @Operation(
+            summary = "Queue new user",
+            description = "Puts the user on the ingestion queue and returns a ticket right away; a writer thread inserts queued users in batched transactions"
+    )
+    @ApiResponse(
+            responseCode = "202",
+            description = "User queued, look up the generated ID with the ticket",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = IngestionTicketResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "429",
+            description = "Ingestion queue is full, retry later"
+    )
+    @ApiResponse(
+            responseCode = "503",
+            description = "The instance is shutting down and no longer queues users"
+    )
+    ResponseEntity<IngestionTicketResponse> createUser(
+            @Parameter(description = "User information to create", required = true)
+            UserRequest userRequest
+    );
+
+    @Operation(
+            summary = "Get ingestion ticket",
+            description = "Returns whether the queued user has been written yet, and its generated ID once it has"
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Ticket found",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = IngestionTicketResponse.class)
+            )
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "Unknown or expired ticket"
+    )
+    ResponseEntity<IngestionTicketResponse> getTicket(
+            @Parameter(description = "Ticket returned when the user was queued", required = true)
+            UUID ticket
+    );
+}
@@ -1,5 +1,6 @@
 package com.trio.spring.boot.jpa.hibernate.example.converter;
 
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
 import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
@@ -43,6 +44,21 @@ public class UserConverter {
                 .toList();
     }
 
+    public UserPageResponse toPageResponse(List<UserResponse> users, int limit) {
+        // Callers fetch one row more than the page size, so an extra row means there is a next page
+        UserPageResponse pageResponse = new UserPageResponse();
+        if (users == null || users.isEmpty()) {
+            pageResponse.setContent(List.of());
+            return pageResponse;
+        }
+
+        boolean hasNext = users.size() > limit;
+        List<UserResponse> content = hasNext ? users.subList(0, limit) : users;
+        pageResponse.setContent(content);
+        pageResponse.setNextCursor(hasNext ? content.get(content.size() - 1).getId() : null);
+        return pageResponse;
+    }
+
     public UserResponse toResponse(Users user) {
         if (user == null) {
             return null;
@@ -52,6 +68,7 @@ public class UserConverter {
         userResponse.setId(user.getId());
         userResponse.setFirstName(user.getFirstName());
         userResponse.setLastName(user.getLastName());
+        userResponse.setVersion(user.getVersion());
         return userResponse;
     }
 }
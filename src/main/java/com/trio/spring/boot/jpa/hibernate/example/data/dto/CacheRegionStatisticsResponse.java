@@ -0,0 +1,15 @@
+package com.trio.spring.boot.jpa.hibernate.example.data.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CacheRegionStatisticsResponse {
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private long evictionCount; // Entries dropped by the cache provider because of size or time-to-live limits
+    private long elementCount;
+}
@@ -0,0 +1,8 @@
+package com.trio.spring.boot.jpa.hibernate.example.data.dto;
+
+public enum IngestionStatus {
+
+    QUEUED, // Waiting in the ingestion queue for the writer thread
+    COMPLETED, // Written, the generated user id is known
+    FAILED // Could not be written, see the error
+}
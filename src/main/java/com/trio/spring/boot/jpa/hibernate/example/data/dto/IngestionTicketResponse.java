@@ -0,0 +1,24 @@
+package com.trio.spring.boot.jpa.hibernate.example.data.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionTicketResponse {
+
+    private UUID ticket;
+    private IngestionStatus status;
+    private Long userId; // Set once the status is COMPLETED
+    private String error; // Set when the status is FAILED
+
+    public static IngestionTicketResponse queued(UUID ticket) {
+        return new IngestionTicketResponse(ticket, IngestionStatus.QUEUED, null, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.trio.spring.boot.jpa.hibernate.example.data.dto;
+
+public enum UpdateMode {
+
+    ENTITY, // Load the entity and let dirty checking write the change, in one unit of work
+    DIRECT // Issue a single UPDATE ... WHERE id = :id statement without loading the entity
+}
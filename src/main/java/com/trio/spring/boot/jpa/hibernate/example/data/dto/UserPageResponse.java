@@ -0,0 +1,16 @@
+package com.trio.spring.boot.jpa.hibernate.example.data.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class UserPageResponse {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private List<UserResponse> content;
+    private Long nextCursor; // Id of the last user on this page, null when there are no more pages
+}
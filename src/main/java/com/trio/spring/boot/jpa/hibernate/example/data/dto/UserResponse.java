@@ -1,12 +1,17 @@
 package com.trio.spring.boot.jpa.hibernate.example.data.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
+@NoArgsConstructor
+@AllArgsConstructor // Target of the constructor projections in read queries: (id, firstName, lastName, version)
 public class UserResponse {
     private Long id;
     private String firstName;
     private String lastName;
+    private Long version; // Sent back in If-Match to update only the version the client has seen
 }
@@ -0,0 +1,6 @@
+package com.trio.spring.boot.jpa.hibernate.example.datasource;
+
+public enum ReplicaLoadBalancing {
+    ROUND_ROBIN, // Each read-only connection goes to the next available replica in turn
+    LEAST_CONNECTIONS // Each read-only connection goes to the available replica with the fewest connections in use
+}
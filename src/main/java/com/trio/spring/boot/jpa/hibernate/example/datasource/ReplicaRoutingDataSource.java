@@ -0,0 +1,171 @@
+package com.trio.spring.boot.jpa.hibernate.example.datasource;
+
+import com.trio.spring.boot.jpa.hibernate.example.config.RoutingDataSourceProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Picks the replica for a read-only connection. Replicas that fail validation or lag too far behind are skipped,
+// and when none is left the primary serves the read.
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, HikariDataSource> replicas;
+    private final ReplicaLoadBalancing loadBalancing;
+    private final RoutingDataSourceProperties.HealthCheck healthCheck;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+    private final ExecutorService healthProbes;
+    private final Map<String, Future<Boolean>> runningProbes = new ConcurrentHashMap<>();
+    private volatile List<String> availableReplicas = List.of();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, Map<String, HikariDataSource> replicas, Function<HikariDataSource, DataSource> connectionLimit,
+                                    ReplicaLoadBalancing loadBalancing, RoutingDataSourceProperties.HealthCheck healthCheck) {
+        this.replicas = replicas;
+        this.loadBalancing = loadBalancing;
+        this.healthCheck = healthCheck;
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.healthProbes = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Reads are routed through connectionLimit, health checks borrow straight from the replica pools
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        replicas.forEach((name, replica) -> targetDataSources.put(name, connectionLimit.apply(replica)));
+        DataSource limitedPrimary = connectionLimit.apply(primary);
+        targetDataSources.put(PRIMARY, limitedPrimary);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(limitedPrimary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas(); // Route to replicas from the first read instead of after the first interval
+        if (!replicas.isEmpty()) {
+            long interval = healthCheck.getInterval().toMillis();
+            healthChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> available = availableReplicas;
+        if (available.isEmpty()) {
+            return PRIMARY; // No replica is reachable and caught up, so the primary serves the read
+        }
+        return switch (loadBalancing) {
+            case ROUND_ROBIN -> available.get(Math.floorMod(nextReplica.getAndIncrement(), available.size()));
+            case LEAST_CONNECTIONS -> available.stream()
+                    .min(Comparator.comparingInt(this::activeConnections))
+                    .orElseThrow();
+        };
+    }
+
+    public void checkReplicas() {
+        // Probes run off this thread, so a replica that hangs while handing out a connection costs the check its timeout,
+        // not the pool's connection-timeout. All replicas are probed at once and share the deadline.
+        Map<String, Future<Boolean>> probes = new HashMap<>();
+        replicas.forEach((name, replica) -> probes.put(name, probe(name, replica)));
+        long deadline = System.nanoTime() + healthCheck.getTimeout().toNanos();
+        List<String> available = probes.entrySet().stream()
+                .filter(probe -> isAvailable(probe.getKey(), probe.getValue(), deadline))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+        if (!available.equals(availableReplicas)) {
+            log.info("Available read replicas: {}", available);
+        }
+        availableReplicas = available;
+    }
+
+    public List<String> getAvailableReplicas() {
+        return availableReplicas;
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        healthProbes.shutdownNow();
+        replicas.values().forEach(HikariDataSource::close);
+    }
+
+    // A probe still stuck from an earlier check is waited on again instead of starting another one, so a hanging replica holds one thread
+    private Future<Boolean> probe(String name, HikariDataSource replica) {
+        return runningProbes.compute(name, (key, running) -> running != null && !running.isDone()
+                ? running
+                : healthProbes.submit(() -> isAvailable(name, replica)));
+    }
+
+    private boolean isAvailable(String name, Future<Boolean> probe, long deadline) {
+        try {
+            return probe.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Read replica {} did not answer within {}", name, healthCheck.getTimeout());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            log.warn("Read replica {} health check failed: {}", name, e.getCause().getMessage());
+            return false;
+        }
+    }
+
+    private boolean isAvailable(String name, HikariDataSource replica) {
+        int timeoutSeconds = (int) Math.max(1, healthCheck.getTimeout().toSeconds());
+        try {
+            try (Connection connection = replica.getConnection()) {
+                if (!connection.isValid(timeoutSeconds)) {
+                    log.warn("Read replica {} failed validation", name);
+                    return false;
+                }
+            }
+            if (healthCheck.getLagQuery() == null) {
+                return true;
+            }
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+            jdbcTemplate.setQueryTimeout(timeoutSeconds);
+            Double lagSeconds = jdbcTemplate.queryForObject(healthCheck.getLagQuery(), Double.class);
+            if (lagSeconds != null && lagSeconds * 1000 > healthCheck.getMaxLag().toMillis()) { // null means nothing to replay, so the replica is current
+                log.warn("Read replica {} lags {}s behind the primary", name, lagSeconds);
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Read replica {} is unreachable: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private int activeConnections(String name) {
+        HikariPoolMXBean pool = replicas.get(name).getHikariPoolMXBean();
+        return pool != null ? pool.getActiveConnections() : 0; // The pool is started by its first connection
+    }
+}
@@ -0,0 +1,315 @@
+package com.trio.spring.boot.jpa.hibernate.example.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Times every JDBC statement of a pool and writes it to the users.sql logger as key-value pairs: slow and failed statements
+// always, with their bind values, row count and the time their connection waited for the pool, the others only at the sample
+// rate. Unlike Hibernate's show_sql it measures instead of printing everything, and the JSON is rendered by an async appender.
+public class StatementLoggingDataSource extends DelegatingDataSource {
+
+    public static final String LOGGER_NAME = "users.sql";
+
+    private static final Logger log = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    private final String poolName;
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+
+    public StatementLoggingDataSource(DataSource targetDataSource, String poolName, Duration slowThreshold, double sampleRate) {
+        super(targetDataSource);
+        this.poolName = poolName;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection();
+        return logging(connection, System.nanoTime() - start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = obtainTargetDataSource().getConnection(username, password);
+        return logging(connection, System.nanoTime() - start);
+    }
+
+    private Connection logging(Connection connection, long acquireNanos) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, new ConnectionHandler(connection, acquireNanos));
+    }
+
+    private void log(String sql, Object[] params, int batchSize, long elapsedNanos, long acquireNanos, Long rows, Throwable error) {
+        boolean slow = elapsedNanos >= slowThresholdNanos;
+        if (!slow && error == null && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        LoggingEventBuilder event = (slow || error != null ? log.atWarn() : log.atInfo())
+                .addKeyValue("pool", poolName)
+                .addKeyValue("sql", sql)
+                .addKeyValue("elapsedMs", millis(elapsedNanos))
+                .addKeyValue("acquireMs", millis(acquireNanos));
+        if (params.length > 0) {
+            event = event.addKeyValue("params", Arrays.stream(params).map(StatementLoggingDataSource::loggable).toList());
+        }
+        if (batchSize > 0) {
+            event = event.addKeyValue("batchSize", batchSize);
+        }
+        if (rows != null) {
+            event = event.addKeyValue("rows", rows);
+        }
+        if (error != null) {
+            event = event.addKeyValue("error", error.getMessage());
+        }
+        event.log(error != null ? "Failed statement" : slow ? "Slow statement" : "Sampled statement");
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0; // Microsecond precision
+    }
+
+    private static Object loggable(Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.length + " bytes";
+        }
+        String text = String.valueOf(value);
+        return text.length() > MAX_PARAMETER_LENGTH ? text.substring(0, MAX_PARAMETER_LENGTH) + "..." : text;
+    }
+
+    // Sum of the update counts; null for execute(), whose update count could only be read once, by the caller
+    private static Long rows(Object result) {
+        if (result instanceof Integer count) {
+            return count.longValue();
+        }
+        if (result instanceof Long count) {
+            return count;
+        }
+        if (result instanceof int[] counts) {
+            return Arrays.stream(counts).filter(count -> count >= 0).asLongStream().sum(); // SUCCESS_NO_INFO is -2
+        }
+        if (result instanceof long[] counts) {
+            return Arrays.stream(counts).filter(count -> count >= 0).sum();
+        }
+        return null;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final long acquireNanos;
+
+        ConnectionHandler(Connection target, long acquireNanos) {
+            this.target = target;
+            this.acquireNanos = acquireNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getTargetConnection":
+                    return target;
+                default:
+                    Object result = StatementLoggingDataSource.invoke(target, method, args);
+                    if (result instanceof Statement statement) { // createStatement, prepareStatement and prepareCall
+                        String sql = method.getName().startsWith("prepare") ? (String) args[0] : null; // A plain Statement gets it on execute
+                        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new StatementHandler(statement, sql, acquireNanos));
+                    }
+                    return result;
+            }
+        }
+    }
+
+    // Remembers the bind values of the next execution; a statement is only used by one thread at a time, so no locking
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final long acquireNanos;
+        private String sql;
+        private Object[] params = new Object[8];
+        private int paramCount;
+        private Object[] firstBatchParams;
+        private int batchSize;
+        private QueryHandler openQuery;
+
+        StatementHandler(Statement target, String sql, long acquireNanos) {
+            this.target = target;
+            this.sql = sql;
+            this.acquireNanos = acquireNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (EXECUTE_METHODS.contains(name)) {
+                return execute(method, args);
+            }
+            switch (name) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "addBatch" -> {
+                    if (args != null && sql == null) {
+                        sql = (String) args[0]; // Statement.addBatch(sql), the first statement stands for the batch
+                    } else if (batchSize == 0) {
+                        firstBatchParams = Arrays.copyOf(params, paramCount); // The first row stands for the batch
+                    }
+                    batchSize++;
+                }
+                case "clearBatch" -> {
+                    batchSize = 0;
+                    firstBatchParams = null;
+                }
+                case "clearParameters" -> {
+                    Arrays.fill(params, 0, paramCount, null);
+                    paramCount = 0;
+                }
+                case "close" -> finishQuery();
+                default -> {
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        bind(index, name.equals("setNull") ? null : args[1]);
+                    }
+                }
+            }
+            return StatementLoggingDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishQuery(); // Executing again closes the previous ResultSet
+            if (args != null && args.length > 0 && args[0] instanceof String statementSql) {
+                sql = statementSql;
+            }
+            int executedBatchSize = batchSize;
+            Object[] executedParams = firstBatchParams != null ? firstBatchParams : Arrays.copyOf(params, paramCount);
+            if (method.getName().endsWith("Batch")) {
+                batchSize = 0;
+                firstBatchParams = null;
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = StatementLoggingDataSource.invoke(target, method, args);
+            } catch (Throwable e) {
+                log(sql, executedParams, executedBatchSize, System.nanoTime() - start, acquireNanos, null, e);
+                throw e;
+            }
+            if (result instanceof ResultSet resultSet) {
+                // Logged once the rows are read, so the time includes fetching them and the row count is known
+                openQuery = new QueryHandler(resultSet, sql, executedParams, start, acquireNanos);
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, openQuery);
+            }
+            log(sql, executedParams, executedBatchSize, System.nanoTime() - start, acquireNanos, rows(result), null);
+            return result;
+        }
+
+        private void bind(int index, Object value) {
+            if (index > params.length) {
+                params = Arrays.copyOf(params, Math.max(index, params.length * 2));
+            }
+            params[index - 1] = value;
+            paramCount = Math.max(paramCount, index);
+        }
+
+        private void finishQuery() {
+            if (openQuery != null) {
+                openQuery.finish();
+                openQuery = null;
+            }
+        }
+    }
+
+    private class QueryHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final String sql;
+        private final Object[] params;
+        private final long start;
+        private final long acquireNanos;
+        private long rows;
+        private boolean finished;
+
+        QueryHandler(ResultSet target, String sql, Object[] params, long start, long acquireNanos) {
+            this.target = target;
+            this.sql = sql;
+            this.params = params;
+            this.start = start;
+            this.acquireNanos = acquireNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            Object result = StatementLoggingDataSource.invoke(target, method, args);
+            switch (method.getName()) {
+                case "next" -> {
+                    if (Boolean.TRUE.equals(result)) {
+                        rows++;
+                    }
+                }
+                case "close" -> finish();
+                default -> {
+                }
+            }
+            return result;
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                log(sql, params, 0, System.nanoTime() - start, acquireNanos, rows, null);
+            }
+        }
+    }
+}
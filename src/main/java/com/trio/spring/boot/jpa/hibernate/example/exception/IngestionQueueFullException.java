@@ -0,0 +1,12 @@
+package com.trio.spring.boot.jpa.hibernate.example.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class IngestionQueueFullException extends RuntimeException {
+
+    public IngestionQueueFullException(int capacity) {
+        super("Ingestion queue is full (" + capacity + " users waiting), retry later");
+    }
+}
@@ -0,0 +1,12 @@
+package com.trio.spring.boot.jpa.hibernate.example.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IngestionStoppedException extends RuntimeException {
+
+    public IngestionStoppedException() {
+        super("Ingestion is shutting down, retry against another instance");
+    }
+}
@@ -0,0 +1,14 @@
+package com.trio.spring.boot.jpa.hibernate.example.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.UUID;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class IngestionTicketNotFoundException extends RuntimeException {
+
+    public IngestionTicketNotFoundException(UUID ticket) {
+        super("Ingestion ticket not found: " + ticket);
+    }
+}
@@ -0,0 +1,24 @@
+package com.trio.spring.boot.jpa.hibernate.example.exception;
+
+import jakarta.persistence.OptimisticLockException;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.io.IOException;
+
+@Slf4j
+@RestControllerAdvice
+public class OptimisticLockExceptionHandler {
+
+    // Another transaction updated the user between our read and our versioned UPDATE, so ours matched no row. JPA throws
+    // OptimisticLockException from EntityManager and Session flushes, Spring translates it for @Transactional and repositories.
+    @ExceptionHandler({OptimisticLockException.class, OptimisticLockingFailureException.class})
+    public void handleOptimisticLock(RuntimeException e, HttpServletResponse response) throws IOException {
+        log.info("Concurrent update rejected: {}", e.getMessage());
+        response.sendError(HttpStatus.CONFLICT.value(), "User was updated concurrently, reload it and retry"); // Same error body as @ResponseStatus exceptions
+    }
+}
@@ -0,0 +1,12 @@
+package com.trio.spring.boot.jpa.hibernate.example.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class TooManyUserIdsException extends RuntimeException {
+
+    public TooManyUserIdsException(int count, int max) {
+        super("Requested " + count + " user IDs, at most " + max + " are allowed per request");
+    }
+}
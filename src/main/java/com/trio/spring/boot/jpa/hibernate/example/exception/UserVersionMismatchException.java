@@ -0,0 +1,16 @@
+package com.trio.spring.boot.jpa.hibernate.example.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED) // The client's If-Match names a version the user no longer has
+public class UserVersionMismatchException extends RuntimeException {
+
+    public UserVersionMismatchException(Long id, Long expectedVersion) {
+        super("User with ID: " + id + " is not at version " + expectedVersion);
+    }
+
+    public UserVersionMismatchException(Long id, String ifMatch) {
+        super("User with ID: " + id + " does not match If-Match: " + ifMatch);
+    }
+}
@@ -0,0 +1,18 @@
+package com.trio.spring.boot.jpa.hibernate.example.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+@Getter
+@RequiredArgsConstructor
+public enum UserExportFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"), // One JSON document per line
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+}
@@ -0,0 +1,71 @@
+package com.trio.spring.boot.jpa.hibernate.example.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+@Component
+public class UserExportWriter {
+
+    // This class writes users to the HTTP response one row at a time, so the export never holds the whole table in memory
+
+    private static final String CSV_HEADER = "id,first_name,last_name,version"; // Same fields as the NDJSON rows
+
+    private final ObjectWriter userResponseWriter;
+
+    public UserExportWriter(ObjectMapper objectMapper) {
+        this.userResponseWriter = objectMapper.writerFor(UserResponse.class);
+    }
+
+    public StreamingResponseBody stream(UserExportFormat format, Consumer<Consumer<UserResponse>> exporter) {
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (format == UserExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            exporter.accept(user -> writeRow(writer, format, user)); // The exporter pushes each row as soon as it is read from the database cursor
+            writer.flush();
+        };
+    }
+
+    private void writeRow(Writer writer, UserExportFormat format, UserResponse user) {
+        try {
+            if (format == UserExportFormat.CSV) {
+                writer.write(String.valueOf(user.getId()));
+                writer.write(',');
+                writer.write(escapeCsv(user.getFirstName()));
+                writer.write(',');
+                writer.write(escapeCsv(user.getLastName()));
+                writer.write(',');
+                writer.write(user.getVersion() != null ? String.valueOf(user.getVersion()) : "");
+            } else {
+                writer.write(userResponseWriter.writeValueAsString(user));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write user with ID: " + user.getId(), e);
+        }
+    }
+
+    private String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
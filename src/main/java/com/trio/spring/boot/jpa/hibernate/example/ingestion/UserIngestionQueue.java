@@ -0,0 +1,187 @@
+package com.trio.spring.boot.jpa.hibernate.example.ingestion;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trio.spring.boot.jpa.hibernate.example.config.UserIngestionProperties;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.IngestionStatus;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.IngestionTicketResponse;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.exception.IngestionQueueFullException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.IngestionStoppedException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.IngestionTicketNotFoundException;
+import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import com.trio.spring.boot.jpa.hibernate.example.service.SpringDataJpaExampleService;
+import lombok.extern.slf4j.Slf4j;
+import org.jctools.queues.MpscArrayQueue;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Write-behind ingestion: request threads only put users on a bounded lock-free queue and return a ticket, a single writer
+// thread drains the queue into batched transactions (group commit) and records the generated id per ticket.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "users.ingestion", name = "enabled", havingValue = "true")
+public class UserIngestionQueue implements SmartLifecycle {
+
+    // Below the web server's start/stop phase (DEFAULT_PHASE - 2048): started before it takes requests, stopped only once it no
+    // longer does, so graceful shutdown lets in-flight POSTs queue their users before the writer drains
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final SpringDataJpaExampleService springDataJpaExampleService;
+    private final int maxBatchSize;
+    private final long maxLatencyNanos;
+    private final MpscArrayQueue<PendingUser> queue; // Many request threads offer, only the writer thread polls
+    private final Cache<UUID, IngestionTicketResponse> tickets;
+    private volatile Thread writer;
+    private volatile boolean running;
+    private volatile boolean accepting = true; // Cleared by stop(); users queued before start() are fine, the writer picks them up
+    private volatile int awaitedUsers; // Queue size at which producers wake the parked writer: 1 while idle, the batch's free slots while filling
+    private final AtomicInteger submitting = new AtomicInteger(); // Producers between their accepting check and their offer, the writer waits for them
+
+    public UserIngestionQueue(SpringDataJpaExampleService springDataJpaExampleService, UserIngestionProperties properties) {
+        this.springDataJpaExampleService = springDataJpaExampleService;
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.maxLatencyNanos = properties.getMaxLatency().toNanos();
+        this.awaitedUsers = maxBatchSize;
+        this.queue = new MpscArrayQueue<>(properties.getQueueCapacity());
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTickets())
+                .expireAfterWrite(properties.getTicketRetention())
+                .build();
+    }
+
+    public IngestionTicketResponse submit(UserRequest userRequest) {
+        submitting.incrementAndGet(); // Before reading accepting: a writer that saw running cleared also sees this producer
+        try {
+            if (!accepting) {
+                throw new IngestionStoppedException(); // The writer may have drained and exited already, nothing would write the user
+            }
+            UUID ticket = UUID.randomUUID();
+            IngestionTicketResponse queued = IngestionTicketResponse.queued(ticket);
+            tickets.put(ticket, queued); // Before offering, so the writer never completes a ticket that is not known yet
+            if (!queue.offer(new PendingUser(ticket, userRequest, System.nanoTime()))) {
+                tickets.invalidate(ticket);
+                throw new IngestionQueueFullException(queue.capacity());
+            }
+            if (queue.size() >= awaitedUsers) {
+                LockSupport.unpark(writer); // Otherwise the writer wakes up by itself when the oldest user reaches maxLatency
+            }
+            return queued;
+        } finally {
+            submitting.decrementAndGet();
+        }
+    }
+
+    public IngestionTicketResponse getTicket(UUID ticket) {
+        IngestionTicketResponse response = tickets.getIfPresent(ticket);
+        if (response == null) {
+            throw new IngestionTicketNotFoundException(ticket);
+        }
+        return response;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        running = true;
+        writer = new Thread(this::drainLoop, "user-ingestion-writer");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        accepting = false; // Late submits are rejected from here on
+        running = false; // The writer drains what is left, including submits in flight
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void drainLoop() {
+        List<PendingUser> batch = new ArrayList<>(maxBatchSize);
+        while (running || submitting.get() > 0 || !queue.isEmpty()) { // In this order: a producer leaves submitting only after its offer
+            fillBatch(batch);
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Waits for a first user, then keeps collecting until the batch is full or that user has waited maxLatency
+    private void fillBatch(List<PendingUser> batch) {
+        if (queue.drain(batch::add, maxBatchSize) == 0) {
+            awaitUntil(1, maxLatencyNanos);
+            return;
+        }
+        long deadline = batch.get(0).queuedAt() + maxLatencyNanos;
+        while (batch.size() < maxBatchSize && running) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            if (queue.drain(batch::add, maxBatchSize - batch.size()) == 0) {
+                awaitUntil(maxBatchSize - batch.size(), remaining); // Users already drained into the batch count towards a full batch
+            }
+        }
+    }
+
+    // Parks until producers have queued the given number of users, running is cleared or the timeout passes
+    private void awaitUntil(int users, long timeoutNanos) {
+        awaitedUsers = users;
+        if (queue.size() < users && running) { // Re-check after publishing awaitedUsers, an offer in between would not unpark us
+            LockSupport.parkNanos(this, timeoutNanos);
+        }
+        awaitedUsers = maxBatchSize;
+    }
+
+    private void write(List<PendingUser> batch) {
+        try {
+            List<Users> savedUsers = springDataJpaExampleService.saveUsers(batch.stream().map(PendingUser::userRequest).toList()); // One transaction, JDBC batched inserts
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), savedUsers.get(i).getId());
+            }
+        } catch (RuntimeException e) {
+            // One bad user rolls back the whole batch, so write them one by one to fail only that one
+            log.warn("Writing a batch of {} users failed, retrying them one by one: {}", batch.size(), e.getMessage());
+            for (PendingUser pendingUser : batch) {
+                try {
+                    complete(pendingUser, springDataJpaExampleService.saveUser(pendingUser.userRequest()).getId());
+                } catch (RuntimeException userException) {
+                    tickets.put(pendingUser.ticket(), new IngestionTicketResponse(pendingUser.ticket(), IngestionStatus.FAILED, null, userException.getMessage()));
+                }
+            }
+        }
+    }
+
+    private void complete(PendingUser pendingUser, Long userId) {
+        tickets.put(pendingUser.ticket(), new IngestionTicketResponse(pendingUser.ticket(), IngestionStatus.COMPLETED, userId, null));
+    }
+
+    private record PendingUser(UUID ticket, UserRequest userRequest, long queuedAt) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.trio.spring.boot.jpa.hibernate.example.metrics;
+
+import com.trio.spring.boot.jpa.hibernate.example.service.EntityManagerOperationsExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.HibernateSessionExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.SpringDataJpaExampleService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Times every public method of the three access styles as users.persistence{style, operation, exception}, so the styles can be
+// compared side by side in production; the count of each timer doubles as the call and error counter
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // Outside the cache and transaction interceptors, so cache hits and commits are part of the time
+@RequiredArgsConstructor
+public class PersistenceMetricsAspect {
+
+    public static final String METRIC_NAME = "users.persistence";
+
+    private static final Map<Class<?>, String> STYLES = Map.of(
+            SpringDataJpaExampleService.class, "spring-data-jpa",
+            HibernateSessionExampleService.class, "hibernate-session",
+            EntityManagerOperationsExampleService.class, "entity-manager");
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * *(..)) && ("
+            + "within(com.trio.spring.boot.jpa.hibernate.example.service.SpringDataJpaExampleService)"
+            + " || within(com.trio.spring.boot.jpa.hibernate.example.service.HibernateSessionExampleService)"
+            + " || within(com.trio.spring.boot.jpa.hibernate.example.service.EntityManagerOperationsExampleService))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Time spent in a service method of one data access style")
+                    .tag("style", STYLES.get(joinPoint.getSignature().getDeclaringType()))
+                    .tag("operation", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -1,15 +1,67 @@
 package com.trio.spring.boot.jpa.hibernate.example.repository;
 
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
 import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface UsersRepository extends JpaRepository<Users, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true")) // Serve repeated lookups from the query cache, entities come from the second-level cache
     List<Users> findByFirstName(String firstName);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT u FROM Users u WHERE u.lastName = :lastName")
     List<Users> findByLastName(String lastName);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Users> findByLastNameAndFirstName(String lastName, String firstName); // Seeks the (last_name, first_name) composite index
+
+    // A derived ...IgnoreCase query would compare UPPER(column) row by row, so these match the indexed generated lower-case columns instead
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT u FROM Users u WHERE u.firstNameLower = LOWER(:firstName)")
+    List<Users> findByFirstNameIgnoreCase(String firstName);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT u FROM Users u WHERE u.lastNameLower = LOWER(:lastName)")
+    List<Users> findByLastNameIgnoreCase(String lastName);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT u FROM Users u WHERE u.lastNameLower = LOWER(:lastName) AND u.firstNameLower = LOWER(:firstName)")
+    List<Users> findByLastNameAndFirstNameIgnoreCase(String lastName, String firstName);
+
+    // Read endpoints select straight into UserResponse: no entity is hydrated, registered in the persistence context or snapshotted for dirty checking
+    @Query("SELECT new com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse(u.id, u.firstName, u.lastName, u.version) FROM Users u")
+    List<UserResponse> findAllUserResponses();
+
+    @Query("SELECT new com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse(u.id, u.firstName, u.lastName, u.version) "
+            + "FROM Users u WHERE u.id > :id ORDER BY u.id")
+    List<UserResponse> findUserResponsesByIdGreaterThan(Long id, Limit limit); // Keyset (seek) page: WHERE id > :id ORDER BY id
+
+    // Bulk statements skip Hibernate's version handling, so bump the version here and match it when the caller expects one
+    @Modifying
+    @Query("UPDATE Users u SET u.firstName = :firstName, u.lastName = :lastName, u.version = u.version + 1 "
+            + "WHERE u.id = :id AND (:version IS NULL OR u.version = :version)")
+    int updateNamesById(Long id, Long version, String firstName, String lastName); // Single UPDATE statement, returns the number of affected rows
+
+    @Modifying
+    @Query("DELETE FROM Users u WHERE u.id = :id")
+    int deleteUserById(Long id); // Single DELETE statement, no SELECT and no entity hydration before the delete
+
+    @Modifying
+    @Query("DELETE FROM Users u WHERE u.id IN :ids")
+    int deleteUsersByIdIn(Collection<Long> ids); // One DELETE ... WHERE id IN (...) for the whole id list
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500")) // Read the JDBC cursor in chunks instead of buffering the whole result
+    @Query("SELECT new com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse(u.id, u.firstName, u.lastName, u.version) FROM Users u ORDER BY u.id")
+    Stream<UserResponse> streamAllUserResponsesOrderById(); // Must be consumed inside a transaction and closed afterwards
 }
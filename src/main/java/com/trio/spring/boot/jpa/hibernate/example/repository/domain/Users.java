@@ -1,26 +1,69 @@
 package com.trio.spring.boot.jpa.hibernate.example.repository.domain;
 
 
+import com.trio.spring.boot.jpa.hibernate.example.config.SecondLevelCacheConfiguration;
+import com.trio.spring.boot.jpa.hibernate.example.search.UsersSearchAnalysisConfigurer;
+import com.trio.spring.boot.jpa.hibernate.example.search.UsersSearchIndex;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
 
 @Getter
 @Setter
 @ToString
 @Entity // This annotation marks the class as a JPA entity
-@Table(name = "users") // This annotation specifies the table name in the database
+@Table(name = "users", indexes = { // This annotation specifies the table name and the indexes created with the schema
+        @Index(name = "idx_users_first_name", columnList = "first_name"),
+        @Index(name = "idx_users_last_name_first_name", columnList = "last_name, first_name"), // Also serves last name lookups through its leading column
+        @Index(name = "idx_users_first_name_lower", columnList = "first_name_lower"),
+        @Index(name = "idx_users_last_name_lower_first_name_lower", columnList = "last_name_lower, first_name_lower")
+})
+@Cacheable // Keep loaded users in the Hibernate second-level cache, shared by all sessions
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfiguration.USERS_REGION) // READ_WRITE soft-locks entries during updates so readers never see stale rows
+@Indexed(index = "users") // Hibernate Search keeps a Lucene document per user in sync with persist, merge and remove
 public class Users {
 
     @Id // This annotation specifies the primary key of the entity
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // This annotation specifies the generation strategy for the primary key
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq") // SEQUENCE keeps JDBC insert batching enabled, IDENTITY would force one insert per round-trip
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50) // allocationSize > 1 enables Hibernate's pooled optimizer, one sequence call per 50 ids
     @Column(name = "id", nullable = false) // This annotation specifies the column name and constraints
     private Long id;
 
     @Column(name = "first_name")
+    @FullTextField(analyzer = UsersSearchAnalysisConfigurer.NAME_ANALYZER)
+    @FullTextField(name = UsersSearchIndex.FIRST_NAME_AUTOCOMPLETE, analyzer = UsersSearchAnalysisConfigurer.AUTOCOMPLETE_ANALYZER,
+            searchAnalyzer = UsersSearchAnalysisConfigurer.NAME_ANALYZER) // Query terms are not split into n-grams, only the indexed names are
     private String firstName;
 
     @Column(name = "last_name")
+    @FullTextField(analyzer = UsersSearchAnalysisConfigurer.NAME_ANALYZER)
+    @FullTextField(name = UsersSearchIndex.LAST_NAME_AUTOCOMPLETE, analyzer = UsersSearchAnalysisConfigurer.AUTOCOMPLETE_ANALYZER,
+            searchAnalyzer = UsersSearchAnalysisConfigurer.NAME_ANALYZER)
     private String lastName;
+
+    @Version // Hibernate adds "AND version = ?" to every UPDATE, a concurrent change makes it match no row instead of being overwritten
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0") // Rows inserted with plain SQL start at version 0
+    private Long version;
+
+    // Lower-case copies computed by the database, so case-insensitive lookups can use an index instead of LOWER(column) on every row.
+    // Never written by Hibernate and not exposed by the entity, they only exist to be queried.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @Column(name = "first_name_lower", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(first_name))")
+    private String firstNameLower;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @Column(name = "last_name_lower", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(last_name))")
+    private String lastNameLower;
 }
@@ -0,0 +1,30 @@
+package com.trio.spring.boot.jpa.hibernate.example.search;
+
+import org.apache.lucene.analysis.core.LowerCaseFilterFactory;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilterFactory;
+import org.apache.lucene.analysis.ngram.EdgeNGramFilterFactory;
+import org.apache.lucene.analysis.standard.StandardTokenizerFactory;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurationContext;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurer;
+
+public class UsersSearchAnalysisConfigurer implements LuceneAnalysisConfigurer {
+
+    public static final String NAME_ANALYZER = "name";
+    public static final String AUTOCOMPLETE_ANALYZER = "autocomplete";
+
+    @Override
+    public void configure(LuceneAnalysisConfigurationContext context) {
+        context.analyzer(NAME_ANALYZER).custom() // Whole words, case and accent insensitive, used for fuzzy matching and at query time
+                .tokenizer(StandardTokenizerFactory.class)
+                .tokenFilter(LowerCaseFilterFactory.class)
+                .tokenFilter(ASCIIFoldingFilterFactory.class);
+
+        context.analyzer(AUTOCOMPLETE_ANALYZER).custom() // Indexes every prefix of every word, so a prefix query is a single term lookup
+                .tokenizer(StandardTokenizerFactory.class)
+                .tokenFilter(LowerCaseFilterFactory.class)
+                .tokenFilter(ASCIIFoldingFilterFactory.class)
+                .tokenFilter(EdgeNGramFilterFactory.class)
+                .param("minGramSize", "1")
+                .param("maxGramSize", "255"); // The name column length, so a prefix of any stored name still matches
+    }
+}
@@ -0,0 +1,102 @@
+package com.trio.spring.boot.jpa.hibernate.example.search;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.search.engine.search.predicate.dsl.BooleanPredicateClausesStep;
+import org.hibernate.search.engine.search.predicate.dsl.PredicateFinalStep;
+import org.hibernate.search.engine.search.predicate.dsl.SearchPredicateFactory;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.search.loading.EntityLoadingCacheLookupStrategy;
+import org.hibernate.search.mapper.orm.session.SearchSession;
+import org.hibernate.search.mapper.orm.work.SearchIndexingPlan;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UsersSearchIndex {
+
+    // Full-text index over Users first and last names. Persist, merge and remove are indexed automatically by
+    // Hibernate Search, bulk HQL statements and rows written outside Hibernate have to be synced through this class.
+
+    public static final String FIRST_NAME_AUTOCOMPLETE = "firstName_autocomplete";
+    public static final String LAST_NAME_AUTOCOMPLETE = "lastName_autocomplete";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    // Every word of the term has to match a name, first or last, as a prefix or else as a whole word with one typo.
+    // A blank term lists users in id order. At most maxResults users are returned, best matches first.
+    public List<Users> search(EntityManager entityManager, String term, int maxResults) {
+        if (term == null || term.isBlank()) {
+            return entityManager.createQuery("SELECT u FROM Users u ORDER BY u.id", Users.class) // Nothing to rank, so list like the unfiltered endpoints
+                    .setMaxResults(maxResults)
+                    .getResultList();
+        }
+        SearchSession searchSession = Search.session(entityManager); // Use Hibernate Search session bound to the given EntityManager or Session
+        List<String> words = List.of(term.trim().split("\\s+"));
+        List<Users> users = fetchHits(searchSession, f -> allWords(f, words, word -> f.match()
+                .fields(FIRST_NAME_AUTOCOMPLETE, LAST_NAME_AUTOCOMPLETE) // Prefix match through the edge n-gram fields, a single term lookup
+                .matching(word)), maxResults);
+        if (!users.isEmpty()) {
+            return users;
+        }
+        return fetchHits(searchSession, f -> allWords(f, words, word -> f.match()
+                .fields("firstName", "lastName") // Fall back to whole words with one typo, fuzzy term expansion is the expensive part
+                .matching(word)
+                .fuzzy(1, 1)), maxResults);
+    }
+
+    // A match on several words would accept any one of them, so each word gets its own required clause
+    private static PredicateFinalStep allWords(SearchPredicateFactory f, List<String> words,
+                                               Function<String, PredicateFinalStep> wordPredicate) {
+        BooleanPredicateClausesStep<?> bool = f.bool();
+        words.forEach(word -> bool.must(wordPredicate.apply(word)));
+        return bool;
+    }
+
+    private List<Users> fetchHits(SearchSession searchSession,
+                                  Function<SearchPredicateFactory, PredicateFinalStep> predicate, int maxResults) {
+        return searchSession.search(Users.class)
+                .where(predicate)
+                .loading(o -> o.cacheLookupStrategy(EntityLoadingCacheLookupStrategy.PERSISTENCE_CONTEXT_THEN_SECOND_LEVEL_CACHE)) // Only ids missing from the second-level cache hit the database
+                .fetchHits(maxResults);
+    }
+
+    public void updateDocument(EntityManager entityManager, Long id, UserRequest userRequest) {
+        Users user = new Users(); // Bulk UPDATE statements bypass entity events, so index the new values without loading the row
+        user.setId(id);
+        user.setFirstName(userRequest.getFirstName());
+        user.setLastName(userRequest.getLastName());
+        Search.session(entityManager).indexingPlan().addOrUpdate(user); // Applied when the surrounding transaction commits
+    }
+
+    public void deleteDocuments(EntityManager entityManager, Collection<Long> ids) {
+        SearchIndexingPlan indexingPlan = Search.session(entityManager).indexingPlan();
+        ids.forEach(id -> indexingPlan.purge(Users.class, id, null)); // Bulk DELETE statements bypass entity events as well
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Rebuilding users search index");
+        try {
+            Search.mapping(entityManagerFactory).scope(Users.class).massIndexer()
+                    .threadsToLoadObjects(Runtime.getRuntime().availableProcessors()) // Plus the id loading thread, stays within the default pool of cores * 2 + 1
+                    .mergeSegmentsOnFinish(true) // One segment instead of many small ones, so each query opens a single stored-fields reader
+                    .startAndWait(); // Index rows that already exist in the database, e.g. after a restart with an in-memory index
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding users search index", e);
+        }
+        log.info("Users search index rebuilt");
+    }
+}
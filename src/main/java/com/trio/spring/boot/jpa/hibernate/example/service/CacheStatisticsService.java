@@ -0,0 +1,58 @@
+package com.trio.spring.boot.jpa.hibernate.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.CacheRegionStatisticsResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.stereotype.Service;
+
+import javax.cache.CacheManager;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static com.trio.spring.boot.jpa.hibernate.example.config.SecondLevelCacheConfiguration.*;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheStatisticsService {
+
+    // This class reports hit, miss and eviction counts of the Hibernate second-level cache regions
+
+    private final SessionFactory sessionFactory;
+    private final CacheManager secondLevelCacheManager;
+
+    public List<CacheRegionStatisticsResponse> getSecondLevelCacheStatistics() {
+        log.info("Fetching second-level cache statistics");
+        return List.of(USERS_REGION, QUERY_RESULTS_REGION, UPDATE_TIMESTAMPS_REGION).stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    private CacheRegionStatisticsResponse toResponse(String region) {
+        CacheRegionStatistics statistics = sessionFactory.getStatistics().getCacheRegionStatistics(region); // Hits, misses and puts as seen by Hibernate
+        CacheRegionStatisticsResponse response = new CacheRegionStatisticsResponse();
+        response.setRegion(region);
+        response.setHitCount(statistics.getHitCount());
+        response.setMissCount(statistics.getMissCount());
+        response.setPutCount(statistics.getPutCount());
+        response.setElementCount(secondLevelCacheManager.getCache(region).unwrap(Cache.class).estimatedSize()); // The JCache region factory does not report sizes, ask Caffeine directly
+        response.setEvictionCount(getEvictionCount(region));
+        return response;
+    }
+
+    private long getEvictionCount(String region) {
+        try {
+            // Hibernate does not see provider evictions, so read them from the JCache statistics MBean of the region
+            ObjectName name = new ObjectName("javax.cache:type=CacheStatistics,CacheManager="
+                    + secondLevelCacheManager.getURI() + ",Cache=" + region);
+            return (Long) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "CacheEvictions");
+        } catch (JMException e) {
+            throw new IllegalStateException("Cache statistics are not available for region: " + region, e);
+        }
+    }
+}
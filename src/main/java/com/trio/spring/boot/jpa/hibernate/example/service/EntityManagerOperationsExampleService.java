@@ -1,24 +1,41 @@
 package com.trio.spring.boot.jpa.hibernate.example.service;
 
+import com.trio.spring.boot.jpa.hibernate.example.batching.UserBatchLoader;
+import com.trio.spring.boot.jpa.hibernate.example.config.BulkInsertProperties;
+import com.trio.spring.boot.jpa.hibernate.example.config.UserResponseCacheConfiguration;
 import com.trio.spring.boot.jpa.hibernate.example.converter.UserConverter;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.exception.TooManyUserIdsException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserNotFoundException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserVersionMismatchException;
 import com.trio.spring.boot.jpa.hibernate.example.repository.UsersRepository;
 import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import com.trio.spring.boot.jpa.hibernate.example.search.UsersSearchIndex;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CompoundSelection;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.h2.engine.User;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -27,15 +44,46 @@ public class EntityManagerOperationsExampleService {
 
     // This class performs CRUD operations for Users entity using EntityManager
 
+    private static final int EXPORT_FETCH_SIZE = 500; // Number of rows the JDBC driver fetches per round-trip while streaming
+    // Bulk statements skip Hibernate's version handling, so bump the version here and match it when the caller expects one
+    private static final String UPDATE_NAMES_BY_ID = "UPDATE Users u SET u.firstName = :firstName, u.lastName = :lastName, u.version = u.version + 1 "
+            + "WHERE u.id = :id AND (:version IS NULL OR u.version = :version)";
+
     private final EntityManagerFactory entityManagerFactory;
     private final UserConverter userConverter;
+    private final BulkInsertProperties bulkInsertProperties;
+    private final UsersSearchIndex usersSearchIndex;
+    private final UserBatchLoader userBatchLoader;
 
+    @Cacheable(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, key = "#id", sync = true) // sync: concurrent misses for one id wait for a single load instead of all querying
     public UserResponse getUserById(Long id) {
         log.info("Fetching user with ID: {}", id);
+        if (userBatchLoader.isEnabled()) {
+            return userBatchLoader.load(EntityManagerOperationsExampleService.class, id, this::getUsersByIds); // Shares one multi-id query with concurrent lookups
+        }
         Users user = findUserById(id);
         return userConverter.toResponse(user);
     }
 
+    public List<UserResponse> getUsersByIds(List<Long> ids) {
+        log.info("Fetching {} users by ID", ids.size());
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.size() > UserPageResponse.MAX_PAGE_SIZE) {
+            throw new TooManyUserIdsException(distinctIds.size(), UserPageResponse.MAX_PAGE_SIZE);
+        }
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+        EntityManager em = createReadOnlyEntityManager(); // Reads never write, so skip dirty checking and flushing
+        try {
+            // JPA has no multi-id find, so use Hibernate's: one IN query, cached users come from the second-level cache
+            List<Users> users = em.unwrap(Session.class).byMultipleIds(Users.class).multiLoad(distinctIds);
+            return userConverter.toResponseList(users.stream().filter(Objects::nonNull).toList()); // Missing ids come back as null, in request order
+        } finally {
+            em.close(); // Close EntityManager
+        }
+    }
+
     public Users saveUser(UserRequest userRequest) {
         log.info("Saving user with request: {}", userRequest);
         Users user = userConverter.toEntity(userRequest);
@@ -54,14 +102,46 @@ public class EntityManagerOperationsExampleService {
         }
     }
 
-    public Users updateUser(Long id, UserRequest userRequest) {
-        log.info("Updating user with ID: {} and request: {}", id, userRequest);
-        Users user = findUserById(id);
-        Users updatedUser = userConverter.updateEntity(user, userRequest);
+    public List<Users> saveUsers(List<UserRequest> userRequests) {
+        log.info("Saving {} users in batches of {}", userRequests.size(), bulkInsertProperties.getBatchSize());
+        int batchSize = bulkInsertProperties.getBatchSize();
+        List<Users> savedUsers = new ArrayList<>(userRequests.size());
+        EntityManager em = entityManagerFactory.createEntityManager(); // Create EntityManager from EntityManagerFactory
+        try {
+            em.getTransaction().begin(); // All batches are written in one transaction instead of one commit per user
+            for (UserRequest userRequest : userRequests) {
+                Users user = userConverter.toEntity(userRequest);
+                em.persist(user); // Use EntityManager.persist() to queue the insert, the pooled sequence assigns the id without a round-trip
+                savedUsers.add(user);
+                if (savedUsers.size() % batchSize == 0) {
+                    em.flush(); // Send the batch as JDBC batched inserts (hibernate.jdbc.batch_size)
+                    em.clear(); // Detach the batch so the persistence context does not grow with the request
+                }
+            }
+            em.getTransaction().commit(); // Commit EntityManager transaction
+            log.info("Saved {} users", savedUsers.size());
+            return savedUsers;
+        } catch (Exception e) {
+            em.getTransaction().rollback(); // Rollback EntityManager transaction on error
+            throw e;
+        } finally {
+            em.close(); // Close EntityManager
+        }
+    }
+
+    @CacheEvict(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, key = "#id")
+    public Users updateUser(Long id, UserRequest userRequest, Long expectedVersion) {
+        log.info("Updating user with ID: {} at version: {} and request: {}", id, expectedVersion, userRequest);
         EntityManager em = entityManagerFactory.createEntityManager(); // Create EntityManager from EntityManagerFactory
         try {
             em.getTransaction().begin(); // Begin EntityManager transaction
-            em.merge(updatedUser); // Use EntityManager.merge() to update existing entity in persistence context
+            Users user = Optional.ofNullable(em.find(Users.class, id)) // Load the entity in the same EntityManager that writes it, no detached merge
+                    .orElseThrow(() -> new UserNotFoundException(id));
+            if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+                throw new UserVersionMismatchException(id, expectedVersion); // The client has not seen the latest change, fail before writing
+            }
+            Users updatedUser = userConverter.updateEntity(user, userRequest); // Change the managed entity, dirty checking issues the UPDATE on commit
+            em.flush(); // Issue the versioned UPDATE here, so a concurrent change surfaces as OptimisticLockException while the transaction can still roll back
             em.getTransaction().commit(); // Commit EntityManager transaction
             log.info("User updated with ID: {}", updatedUser.getId());
             return updatedUser;
@@ -73,15 +153,49 @@ public class EntityManagerOperationsExampleService {
         }
     }
 
+    @CacheEvict(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, key = "#id")
+    public int updateUserDirect(Long id, UserRequest userRequest, Long expectedVersion) {
+        log.info("Updating user directly with ID: {} at version: {} and request: {}", id, expectedVersion, userRequest);
+        EntityManager em = entityManagerFactory.createEntityManager(); // Create EntityManager from EntityManagerFactory
+        try {
+            em.getTransaction().begin(); // Begin EntityManager transaction
+            int updatedRows = em.createQuery(UPDATE_NAMES_BY_ID) // Use Query.executeUpdate() to update without loading the entity
+                    .setParameter("firstName", userRequest.getFirstName())
+                    .setParameter("lastName", userRequest.getLastName())
+                    .setParameter("id", id)
+                    .setParameter("version", expectedVersion)
+                    .executeUpdate();
+            if (updatedRows == 0) {
+                if (expectedVersion != null && em.find(Users.class, id) != null) { // Only the failure path pays for telling a stale version from a missing user
+                    throw new UserVersionMismatchException(id, expectedVersion);
+                }
+                throw new UserNotFoundException(id);
+            }
+            usersSearchIndex.updateDocument(em, id, userRequest); // Bulk statements skip entity events, so sync the search index explicitly
+            em.getTransaction().commit(); // Commit EntityManager transaction
+            log.info("User updated directly with ID: {}", id);
+            return updatedRows;
+        } catch (Exception e) {
+            em.getTransaction().rollback(); // Rollback EntityManager transaction on error
+            throw e;
+        } finally {
+            em.close(); // Close EntityManager
+        }
+    }
+
+    @CacheEvict(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, key = "#id")
     public void deleteUser(Long id) {
         log.info("Deleting user with ID: {}", id);
         EntityManager em = entityManagerFactory.createEntityManager(); // Create EntityManager from EntityManagerFactory
         try {
             em.getTransaction().begin(); // Begin EntityManager transaction
-            Users user = em.find(Users.class, id); // Find entity within the same EntityManager
-            if (user != null) {
-                em.remove(user); // Use EntityManager.remove() to delete entity from persistence context
+            int deletedRows = em.createQuery("DELETE FROM Users u WHERE u.id = :id") // Use EntityManager.createQuery().executeUpdate() to delete without loading the entity
+                    .setParameter("id", id)
+                    .executeUpdate();
+            if (deletedRows == 0) {
+                throw new UserNotFoundException(id);
             }
+            usersSearchIndex.deleteDocuments(em, List.of(id)); // Bulk statements skip entity events, so sync the search index explicitly
             em.getTransaction().commit(); // Commit EntityManager transaction
             log.info("User deleted with ID: {}", id);
         } catch (Exception e) {
@@ -92,39 +206,103 @@ public class EntityManagerOperationsExampleService {
         }
     }
 
+    @CacheEvict(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, allEntries = true) // Cheaper than one eviction per id, and bulk deletes are rare
+    public int deleteUsers(List<Long> ids) {
+        log.info("Deleting {} users", ids.size());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        EntityManager em = entityManagerFactory.createEntityManager(); // Create EntityManager from EntityManagerFactory
+        try {
+            em.getTransaction().begin(); // Begin EntityManager transaction
+            int deletedRows = em.createQuery("DELETE FROM Users u WHERE u.id IN :ids") // One DELETE statement for the whole id list
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+            usersSearchIndex.deleteDocuments(em, ids);
+            em.getTransaction().commit(); // Commit EntityManager transaction
+            log.info("Deleted {} users", deletedRows);
+            return deletedRows;
+        } catch (Exception e) {
+            em.getTransaction().rollback(); // Rollback EntityManager transaction on error
+            throw e;
+        } finally {
+            em.close(); // Close EntityManager
+        }
+    }
+
     public List<UserResponse> findAllUsers() {
         log.info("Fetching all users");
-        EntityManager em = entityManagerFactory.createEntityManager(); // Create EntityManager from EntityManagerFactory
+        EntityManager em = createReadOnlyEntityManager(); // Reads never write, so skip dirty checking and flushing
         try {
-            List<Users> users = em.createQuery("SELECT u FROM Users u", Users.class).getResultList(); // Use EntityManager.createQuery() to execute JPQL query
-            return userConverter.toResponseList(users);
+            CriteriaBuilder criteriaBuilder = em.getCriteriaBuilder();
+            CriteriaQuery<UserResponse> query = criteriaBuilder.createQuery(UserResponse.class);
+            Root<Users> root = query.from(Users.class);
+            query.select(toUserResponse(criteriaBuilder, root));
+
+            return em.createQuery(query).getResultList(); // Use EntityManager.createQuery() to execute the Criteria query
         } finally {
             em.close(); // Close EntityManager
         }
     }
 
-    public List<UserResponse> findAllBySearchParam(String searchParam) {
-        EntityManager em = entityManagerFactory.createEntityManager(); // Create EntityManager from EntityManagerFactory
+    public List<UserResponse> findAllBySearchParam(String searchParam, int maxResults) {
+        log.info("Searching users with search param: {} and max results: {}", searchParam, maxResults);
+        int resultLimit = Math.min(Math.max(maxResults, 1), UserPageResponse.MAX_PAGE_SIZE); // Same bounds as a page of users
+        EntityManager em = createReadOnlyEntityManager(); // Reads never write, so skip dirty checking and flushing
         try {
-            CriteriaBuilder criteriaBuilder = em.getCriteriaBuilder(); // CriteriaBuilder is used to construct criteria queries, compound selections, expressions, predicates, etc.
-            CriteriaQuery<Users> query = criteriaBuilder.createQuery(Users.class); // CriteriaQuery is used to define the query structure and specify the result type.
+            List<Users> resultList = usersSearchIndex.search(em, searchParam, resultLimit); // Use the Lucene index instead of a leading-wildcard LIKE that scans the whole table
 
-            // Specify the root entity
-            Root<Users> root = query.from(Users.class);
-            List<Predicate> predicates = new ArrayList<>();
+            return userConverter.toResponseList(resultList);
+        } finally {
+            em.close(); // Close EntityManager
+        }
+    }
 
-            if (searchParam != null && !searchParam.isEmpty()) {
-                Predicate firstNamePredicate = criteriaBuilder.like(root.get("firstName"), "%" + searchParam + "%"); // Create a predicate for first name search
-                Predicate lastNamePredicate = criteriaBuilder.like(root.get("lastName"), "%" + searchParam + "%"); // Create a predicate for last name search
+    public UserPageResponse findUsersPage(Long afterId, int limit) {
+        log.info("Fetching users page after ID: {} with limit: {}", afterId, limit);
+        int pageSize = Math.min(Math.max(limit, 1), UserPageResponse.MAX_PAGE_SIZE);
+        long cursor = afterId != null ? afterId : 0L;
+        EntityManager em = createReadOnlyEntityManager(); // Reads never write, so skip dirty checking and flushing
+        try {
+            CriteriaBuilder criteriaBuilder = em.getCriteriaBuilder();
+            CriteriaQuery<UserResponse> query = criteriaBuilder.createQuery(UserResponse.class);
+            Root<Users> root = query.from(Users.class);
 
-                predicates.add(criteriaBuilder.or(firstNamePredicate, lastNamePredicate)); // Combine predicates with OR logic
-            }
+            query.select(toUserResponse(criteriaBuilder, root))
+                    .where(criteriaBuilder.greaterThan(root.get("id"), cursor)) // Seek past the cursor instead of skipping rows with OFFSET
+                    .orderBy(criteriaBuilder.asc(root.get("id")));
 
-            query.select(root).where(predicates.toArray(new Predicate[0])); // Apply the predicates to the query
+            List<UserResponse> users = em.createQuery(query)
+                    .setMaxResults(pageSize + 1) // Fetch one extra row to know whether a next page exists
+                    .getResultList();
 
-            List<Users> resultList = em.createQuery(query).getResultList(); // Use EntityManager.createQuery() to execute criteria query and get result list
+            return userConverter.toPageResponse(users, pageSize);
+        } finally {
+            em.close(); // Close EntityManager
+        }
+    }
 
-            return userConverter.toResponseList(resultList);
+    public void exportUsers(Consumer<UserResponse> consumer) {
+        log.info("Exporting all users");
+        EntityManager em = createReadOnlyEntityManager(); // Reads never write, so skip dirty checking and flushing
+        try {
+            em.getTransaction().begin(); // Some drivers only honour the fetch size inside a transaction
+            try (Stream<UserResponse> users = em.createQuery("SELECT new com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse(u.id, u.firstName, u.lastName, u.version) "
+                            + "FROM Users u ORDER BY u.id", UserResponse.class) // JPQL constructor expression, rows go straight into UserResponse
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                    .getResultStream()) { // Use TypedQuery.getResultStream() to read rows through a forward-only cursor
+                Iterator<UserResponse> iterator = users.iterator();
+                int count = 0;
+                while (iterator.hasNext()) {
+                    consumer.accept(iterator.next()); // Projected rows never enter the persistence context, so it does not grow with the table
+                    count++;
+                }
+                em.getTransaction().commit(); // Commit EntityManager transaction
+                log.info("Exported {} users", count);
+            }
+        } catch (Exception e) {
+            em.getTransaction().rollback(); // Rollback EntityManager transaction on error
+            throw e;
         } finally {
             em.close(); // Close EntityManager
         }
@@ -132,14 +310,27 @@ public class EntityManagerOperationsExampleService {
 
     private Users findUserById(Long id) {
         log.info("Fetching user with ID: {}", id);
-        EntityManager em = entityManagerFactory.createEntityManager(); // Create EntityManager from EntityManagerFactory
+        EntityManager em = createReadOnlyEntityManager(); // Reads never write, so skip dirty checking and flushing
         try {
             return Optional.ofNullable(em.find(Users.class, id)) // Use EntityManager.find() to retrieve entity by primary key
-                    .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
+                    .orElseThrow(() -> new UserNotFoundException(id));
         } finally {
             em.close(); // Close EntityManager
         }
     }
 
+    private EntityManager createReadOnlyEntityManager() {
+        EntityManager em = entityManagerFactory.createEntityManager(); // Create EntityManager from EntityManagerFactory
+        em.setProperty(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL); // Never flush, there is nothing to write
+        Session session = em.unwrap(Session.class); // JPA has no EntityManager-wide read-only hint, so use Hibernate's
+        session.setDefaultReadOnly(true); // Loaded entities get no dirty-checking snapshot
+        session.doWork(connection -> connection.setReadOnly(true)); // Let the driver or a routing DataSource treat the connection as read-only
+        return em;
+    }
 
+    private static CompoundSelection<UserResponse> toUserResponse(CriteriaBuilder criteriaBuilder, Root<Users> root) {
+        // Use CriteriaBuilder.construct() to select straight into UserResponse, no entity is hydrated or snapshotted for dirty checking
+        return criteriaBuilder.construct(UserResponse.class, root.get("id"), root.get("firstName"), root.get("lastName"),
+                root.get("version"));
+    }
 }
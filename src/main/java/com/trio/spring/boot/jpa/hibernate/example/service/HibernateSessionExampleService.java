@@ -1,18 +1,34 @@
 package com.trio.spring.boot.jpa.hibernate.example.service;
 
+import com.trio.spring.boot.jpa.hibernate.example.batching.UserBatchLoader;
+import com.trio.spring.boot.jpa.hibernate.example.config.BulkInsertProperties;
+import com.trio.spring.boot.jpa.hibernate.example.config.UserResponseCacheConfiguration;
 import com.trio.spring.boot.jpa.hibernate.example.converter.UserConverter;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.exception.TooManyUserIdsException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserNotFoundException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserVersionMismatchException;
 import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import com.trio.spring.boot.jpa.hibernate.example.search.UsersSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.FlushMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -21,15 +37,45 @@ public class HibernateSessionExampleService {
 
     // This class performs CRUD operations for Users entity using Hibernate session
 
+    private static final int EXPORT_FETCH_SIZE = 500; // Number of rows the JDBC driver fetches per round-trip while scrolling
+    // Bulk statements skip Hibernate's version handling, so bump the version here and match it when the caller expects one
+    private static final String UPDATE_NAMES_BY_ID = "UPDATE Users u SET u.firstName = :firstName, u.lastName = :lastName, u.version = u.version + 1 "
+            + "WHERE u.id = :id AND (:version IS NULL OR u.version = :version)";
+    // HQL constructor expression for read queries: rows go straight into UserResponse, no entity is hydrated or snapshotted for dirty checking
+    private static final String USER_RESPONSE_PROJECTION = UserResponse.class.getName() + "(u.id, u.firstName, u.lastName, u.version)";
+
     private final SessionFactory sessionFactory;
     private final UserConverter userConverter;
+    private final BulkInsertProperties bulkInsertProperties;
+    private final UsersSearchIndex usersSearchIndex;
+    private final UserBatchLoader userBatchLoader;
 
+    @Cacheable(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, key = "#id", sync = true) // sync: concurrent misses for one id wait for a single load instead of all querying
     public UserResponse getUserById(Long id) {
         log.info("Fetching user with ID: {}", id);
+        if (userBatchLoader.isEnabled()) {
+            return userBatchLoader.load(HibernateSessionExampleService.class, id, this::getUsersByIds); // Shares one multi-id query with concurrent lookups
+        }
         Users user = findUserById(id);
         return userConverter.toResponse(user);
     }
 
+    public List<UserResponse> getUsersByIds(List<Long> ids) {
+        log.info("Fetching {} users by ID", ids.size());
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.size() > UserPageResponse.MAX_PAGE_SIZE) {
+            throw new TooManyUserIdsException(distinctIds.size(), UserPageResponse.MAX_PAGE_SIZE);
+        }
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+        try (Session session = openReadOnlySession()) { // Reads never write, so skip dirty checking and flushing
+            List<Users> users = session.byMultipleIds(Users.class) // Use Session.byMultipleIds() to load all ids with one IN query, cached users come from the second-level cache
+                    .multiLoad(distinctIds);
+            return userConverter.toResponseList(users.stream().filter(Objects::nonNull).toList()); // Missing ids come back as null, in request order
+        }
+    }
+
     public Users saveUser(UserRequest userRequest) {
         log.info("Saving user with request: {}", userRequest);
         Users user = userConverter.toEntity(userRequest);
@@ -47,14 +93,46 @@ public class HibernateSessionExampleService {
         }
     }
 
-    public Users updateUser(Long id, UserRequest userRequest) {
-        log.info("Updating user with ID: {} and request: {}", id, userRequest);
-        Users user = findUserById(id);
-        Users updatedUser = userConverter.updateEntity(user, userRequest);
+    public List<Users> saveUsers(List<UserRequest> userRequests) {
+        log.info("Saving {} users in batches of {}", userRequests.size(), bulkInsertProperties.getBatchSize());
+        int batchSize = bulkInsertProperties.getBatchSize();
+        List<Users> savedUsers = new ArrayList<>(userRequests.size());
+        try (Session session = sessionFactory.openSession()) { // Open Hibernate Session from SessionFactory
+            session.setJdbcBatchSize(batchSize); // Use Session.setJdbcBatchSize() to group inserts into JDBC batches for this session
+            Transaction transaction = session.beginTransaction(); // All batches are written in one transaction instead of one commit per user
+            try {
+                for (UserRequest userRequest : userRequests) {
+                    Users user = userConverter.toEntity(userRequest);
+                    session.persist(user); // Use Session.persist() to queue the insert, the pooled sequence assigns the id without a round-trip
+                    savedUsers.add(user);
+                    if (savedUsers.size() % batchSize == 0) {
+                        session.flush(); // Send the batch as JDBC batched inserts
+                        session.clear(); // Detach the batch so the session does not grow with the request
+                    }
+                }
+                transaction.commit(); // Commit transaction to persist changes to database
+                log.info("Saved {} users", savedUsers.size());
+                return savedUsers;
+            } catch (Exception e) {
+                transaction.rollback(); // Rollback transaction on error
+                throw e;
+            }
+        }
+    }
+
+    @CacheEvict(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, key = "#id")
+    public Users updateUser(Long id, UserRequest userRequest, Long expectedVersion) {
+        log.info("Updating user with ID: {} at version: {} and request: {}", id, expectedVersion, userRequest);
         try (Session session = sessionFactory.openSession()) { // Open Hibernate Session from SessionFactory
             Transaction transaction = session.beginTransaction(); // Begin transaction for database operations
             try {
-                session.merge(updatedUser); // Use Session.merge() to update existing entity in session
+                Users user = Optional.ofNullable(session.get(Users.class, id)) // Load the entity in the same session that writes it, no detached merge
+                        .orElseThrow(() -> new UserNotFoundException(id));
+                if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+                    throw new UserVersionMismatchException(id, expectedVersion); // The client has not seen the latest change, fail before writing
+                }
+                Users updatedUser = userConverter.updateEntity(user, userRequest); // Change the managed entity, dirty checking issues the UPDATE on commit
+                session.flush(); // Issue the versioned UPDATE here, so a concurrent change surfaces as OptimisticLockException while the transaction can still roll back
                 transaction.commit(); // Commit transaction to persist changes to database
                 log.info("User updated with ID: {}", updatedUser.getId());
                 return updatedUser;
@@ -65,15 +143,48 @@ public class HibernateSessionExampleService {
         }
     }
 
+    @CacheEvict(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, key = "#id")
+    public int updateUserDirect(Long id, UserRequest userRequest, Long expectedVersion) {
+        log.info("Updating user directly with ID: {} at version: {} and request: {}", id, expectedVersion, userRequest);
+        try (Session session = sessionFactory.openSession()) { // Open Hibernate Session from SessionFactory
+            Transaction transaction = session.beginTransaction(); // Begin transaction for database operations
+            try {
+                int updatedRows = session.createMutationQuery(UPDATE_NAMES_BY_ID) // Use Session.createMutationQuery() to update without loading the entity
+                        .setParameter("firstName", userRequest.getFirstName())
+                        .setParameter("lastName", userRequest.getLastName())
+                        .setParameter("id", id)
+                        .setParameter("version", expectedVersion)
+                        .executeUpdate();
+                if (updatedRows == 0) {
+                    if (expectedVersion != null && session.get(Users.class, id) != null) { // Only the failure path pays for telling a stale version from a missing user
+                        throw new UserVersionMismatchException(id, expectedVersion);
+                    }
+                    throw new UserNotFoundException(id);
+                }
+                usersSearchIndex.updateDocument(session, id, userRequest); // Bulk statements skip entity events, so sync the search index explicitly
+                transaction.commit(); // Commit transaction to persist changes to database
+                log.info("User updated directly with ID: {}", id);
+                return updatedRows;
+            } catch (Exception e) {
+                transaction.rollback(); // Rollback transaction on error
+                throw e;
+            }
+        }
+    }
+
+    @CacheEvict(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, key = "#id")
     public void deleteUser(Long id) {
         log.info("Deleting user with ID: {}", id);
         try (Session session = sessionFactory.openSession()) { // Open Hibernate Session from SessionFactory
             Transaction transaction = session.beginTransaction(); // Begin transaction for database operations
             try {
-                Users user = session.get(Users.class, id); // Get entity within the same session
-                if (user != null) {
-                    session.remove(user); // Use Session.remove() to delete entity from session
+                int deletedRows = session.createMutationQuery("DELETE FROM Users u WHERE u.id = :id") // Use Session.createMutationQuery() to delete without loading the entity
+                        .setParameter("id", id)
+                        .executeUpdate();
+                if (deletedRows == 0) {
+                    throw new UserNotFoundException(id);
                 }
+                usersSearchIndex.deleteDocuments(session, List.of(id)); // Bulk statements skip entity events, so sync the search index explicitly
                 transaction.commit(); // Commit transaction to persist changes to database
                 log.info("User deleted with ID: {}", id);
             } catch (Exception e) {
@@ -83,19 +194,85 @@ public class HibernateSessionExampleService {
         }
     }
 
+    @CacheEvict(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, allEntries = true) // Cheaper than one eviction per id, and bulk deletes are rare
+    public int deleteUsers(List<Long> ids) {
+        log.info("Deleting {} users", ids.size());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try (Session session = sessionFactory.openSession()) { // Open Hibernate Session from SessionFactory
+            Transaction transaction = session.beginTransaction(); // Begin transaction for database operations
+            try {
+                int deletedRows = session.createMutationQuery("DELETE FROM Users u WHERE u.id IN :ids") // One DELETE statement for the whole id list
+                        .setParameterList("ids", ids)
+                        .executeUpdate();
+                usersSearchIndex.deleteDocuments(session, ids);
+                transaction.commit(); // Commit transaction to persist changes to database
+                log.info("Deleted {} users", deletedRows);
+                return deletedRows;
+            } catch (Exception e) {
+                transaction.rollback(); // Rollback transaction on error
+                throw e;
+            }
+        }
+    }
+
     public List<UserResponse> findAllUsers() {
         log.info("Fetching all users");
-        try (Session session = sessionFactory.openSession()) { // Open Hibernate Session from SessionFactory
-            List<Users> users = session.createQuery("FROM Users", Users.class).list(); // Use Session.createQuery() to execute HQL query
-            return userConverter.toResponseList(users);
+        try (Session session = openReadOnlySession()) { // Reads never write, so skip dirty checking and flushing
+            return session.createQuery("SELECT new " + USER_RESPONSE_PROJECTION + " FROM Users u", UserResponse.class) // Use Session.createQuery() to execute HQL query
+                    .list();
         }
     }
 
+    public UserPageResponse findUsersPage(Long afterId, int limit) {
+        log.info("Fetching users page after ID: {} with limit: {}", afterId, limit);
+        int pageSize = Math.min(Math.max(limit, 1), UserPageResponse.MAX_PAGE_SIZE);
+        long cursor = afterId != null ? afterId : 0L;
+        try (Session session = openReadOnlySession()) { // Reads never write, so skip dirty checking and flushing
+            List<UserResponse> users = session.createQuery("SELECT new " + USER_RESPONSE_PROJECTION + " FROM Users u WHERE u.id > :afterId ORDER BY u.id",
+                            UserResponse.class) // Seek past the cursor instead of skipping rows with OFFSET
+                    .setParameter("afterId", cursor)
+                    .setMaxResults(pageSize + 1) // Fetch one extra row to know whether a next page exists
+                    .list();
+            return userConverter.toPageResponse(users, pageSize);
+        }
+    }
+
+    public void exportUsers(Consumer<UserResponse> consumer) {
+        log.info("Exporting all users");
+        try (Session session = openReadOnlySession()) { // Reads never write, so skip dirty checking and flushing
+            Transaction transaction = session.beginTransaction(); // Some drivers only honour the fetch size inside a transaction
+            try (ScrollableResults<UserResponse> users = session.createQuery("SELECT new " + USER_RESPONSE_PROJECTION + " FROM Users u ORDER BY u.id", UserResponse.class)
+                    .setFetchSize(EXPORT_FETCH_SIZE)
+                    .scroll(ScrollMode.FORWARD_ONLY)) { // Use Query.scroll() to walk the result set through a forward-only cursor
+                int count = 0;
+                while (users.next()) {
+                    consumer.accept(users.get()); // Projected rows never enter the session, so it does not grow with the table
+                    count++;
+                }
+                transaction.commit();
+                log.info("Exported {} users", count);
+            } catch (Exception e) {
+                transaction.rollback(); // Rollback transaction on error
+                throw e;
+            }
+        }
+    }
+
+    private Session openReadOnlySession() {
+        Session session = sessionFactory.openSession(); // Open Hibernate Session from SessionFactory
+        session.setDefaultReadOnly(true); // Loaded entities get no dirty-checking snapshot
+        session.setHibernateFlushMode(FlushMode.MANUAL); // Never flush, there is nothing to write
+        session.doWork(connection -> connection.setReadOnly(true)); // Let the driver or a routing DataSource treat the connection as read-only
+        return session;
+    }
+
     private Users findUserById(Long id) {
         log.info("Finding user with ID: {}", id);
-        try (Session session = sessionFactory.openSession()) { // Open Hibernate Session from SessionFactory
+        try (Session session = openReadOnlySession()) { // Reads never write, so skip dirty checking and flushing
             return Optional.ofNullable(session.get(Users.class, id)) // Use Session.get() to retrieve entity by primary key
-                    .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
+                    .orElseThrow(() -> new UserNotFoundException(id));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.trio.spring.boot.jpa.hibernate.example.service;
+
+import com.trio.spring.boot.jpa.hibernate.example.converter.UserConverter;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserNotFoundException;
+import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ReactiveExampleService {
+
+    // This class reads Users through R2DBC, no thread waits for the database and rows are only fetched as fast as they are consumed
+
+    private static final int SEARCH_MAX_RESULTS = 20; // Typeahead only shows the best matches
+
+    private final DatabaseClient databaseClient;
+    private final UserConverter userConverter;
+
+    public Flux<UserResponse> findAllUsers() {
+        log.info("Streaming all users");
+        return databaseClient.sql("SELECT id, first_name, last_name, version FROM users ORDER BY id") // Use DatabaseClient.sql() to run plain SQL without an ORM
+                .map(this::toUser)
+                .all() // Rows are emitted on demand, a slow subscriber slows down the fetch instead of buffering the whole table
+                .map(userConverter::toResponse);
+    }
+
+    public Flux<UserResponse> findAllBySearchParam(String searchParam) {
+        log.info("Searching users with search param: {}", searchParam);
+        // Hibernate Search is bound to the ORM session, so match name prefixes on the indexed lower-case columns instead.
+        // UNION lets each branch use its own index where an OR across both columns would scan the table.
+        return databaseClient.sql("""
+                        SELECT id, first_name, last_name, version FROM users WHERE first_name_lower LIKE :prefix ESCAPE '\\'
+                        UNION
+                        SELECT id, first_name, last_name, version FROM users WHERE last_name_lower LIKE :prefix ESCAPE '\\'
+                        ORDER BY id
+                        LIMIT :limit""")
+                .bind("prefix", escapeLike(searchParam.toLowerCase()) + "%")
+                .bind("limit", SEARCH_MAX_RESULTS)
+                .map(this::toUser)
+                .all()
+                .map(userConverter::toResponse);
+    }
+
+    public Mono<UserResponse> getUserById(Long id) {
+        log.info("Finding user with ID: {}", id);
+        return databaseClient.sql("SELECT id, first_name, last_name, version FROM users WHERE id = :id")
+                .bind("id", id)
+                .map(this::toUser)
+                .one()
+                .map(userConverter::toResponse)
+                .switchIfEmpty(Mono.error(() -> new UserNotFoundException(id)));
+    }
+
+    private Users toUser(Readable row) {
+        Users user = new Users();
+        user.setId(row.get("id", Long.class));
+        user.setFirstName(row.get("first_name", String.class));
+        user.setLastName(row.get("last_name", String.class));
+        user.setVersion(row.get("version", Long.class));
+        return user;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
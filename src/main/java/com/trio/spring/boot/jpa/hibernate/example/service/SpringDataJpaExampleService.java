@@ -1,15 +1,36 @@
 package com.trio.spring.boot.jpa.hibernate.example.service;
 
+import com.trio.spring.boot.jpa.hibernate.example.batching.UserBatchLoader;
+import com.trio.spring.boot.jpa.hibernate.example.config.BulkInsertProperties;
+import com.trio.spring.boot.jpa.hibernate.example.config.UserResponseCacheConfiguration;
 import com.trio.spring.boot.jpa.hibernate.example.converter.UserConverter;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.exception.TooManyUserIdsException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserNotFoundException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserVersionMismatchException;
 import com.trio.spring.boot.jpa.hibernate.example.repository.UsersRepository;
 import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import com.trio.spring.boot.jpa.hibernate.example.search.UsersSearchIndex;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -20,6 +41,10 @@ public class SpringDataJpaExampleService {
 
     private final UsersRepository usersRepository;
     private final UserConverter userConverter;
+    private final EntityManager entityManager; // Shared transactional EntityManager, used to flush and clear batches and to reach the search session
+    private final BulkInsertProperties bulkInsertProperties;
+    private final UsersSearchIndex usersSearchIndex;
+    private final UserBatchLoader userBatchLoader;
 
     public Users saveUser(UserRequest userRequest) {
         log.info("Saving user with request: {}", userRequest);
@@ -29,37 +54,163 @@ public class SpringDataJpaExampleService {
         return savedUser;
     }
 
-    public Users updateUser(Long id, UserRequest userRequest) {
-        log.info("Updating user with ID: {} and request: {}", id, userRequest);
+    @Transactional // All batches are written in one transaction instead of one commit per user
+    public List<Users> saveUsers(List<UserRequest> userRequests) {
+        log.info("Saving {} users in batches of {}", userRequests.size(), bulkInsertProperties.getBatchSize());
+        int batchSize = bulkInsertProperties.getBatchSize();
+        List<Users> savedUsers = new ArrayList<>(userRequests.size());
+        for (int from = 0; from < userRequests.size(); from += batchSize) {
+            List<Users> batch = userRequests.subList(from, Math.min(from + batchSize, userRequests.size())).stream()
+                    .map(userConverter::toEntity)
+                    .toList();
+            savedUsers.addAll(usersRepository.saveAll(batch)); // Use Spring Data JPA repository.saveAll() to persist the batch
+            entityManager.flush(); // Send the batch as JDBC batched inserts
+            entityManager.clear(); // Detach the batch so the persistence context does not grow with the request
+        }
+        log.info("Saved {} users", savedUsers.size());
+        return savedUsers;
+    }
+
+    @CacheEvict(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, key = "#id")
+    @Transactional // Load and update in one transaction, so save() works on a managed entity instead of merging a detached copy
+    public Users updateUser(Long id, UserRequest userRequest, Long expectedVersion) {
+        log.info("Updating user with ID: {} at version: {} and request: {}", id, expectedVersion, userRequest);
         Users existingUser = findUserById(id);
+        if (expectedVersion != null && !expectedVersion.equals(existingUser.getVersion())) {
+            throw new UserVersionMismatchException(id, expectedVersion); // The client has not seen the latest change, fail before writing
+        }
         Users updatedUser = userConverter.updateEntity(existingUser, userRequest); // Update the existing Users entity with new data from UserRequest
         Users savedUser = usersRepository.save(updatedUser); // Use Spring Data JPA repository.save() to update existing entity in database
         log.info("User updated with ID: {}", savedUser.getId());
         return savedUser;
     }
 
+    @CacheEvict(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, key = "#id")
+    @Transactional
+    public int updateUserDirect(Long id, UserRequest userRequest, Long expectedVersion) {
+        log.info("Updating user directly with ID: {} at version: {} and request: {}", id, expectedVersion, userRequest);
+        int updatedRows = usersRepository.updateNamesById(id, expectedVersion, userRequest.getFirstName(), userRequest.getLastName()); // Use a @Modifying repository query to update without loading the entity
+        if (updatedRows == 0) {
+            if (expectedVersion != null && usersRepository.existsById(id)) { // Only the failure path pays for telling a stale version from a missing user
+                throw new UserVersionMismatchException(id, expectedVersion);
+            }
+            throw new UserNotFoundException(id);
+        }
+        usersSearchIndex.updateDocument(entityManager, id, userRequest); // Bulk statements skip entity events, so sync the search index explicitly
+        log.info("User updated directly with ID: {}", id);
+        return updatedRows;
+    }
+
+    @CacheEvict(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, key = "#id")
+    @Transactional
     public void deleteUser(Long id) {
         log.info("Deleting user with ID: {}", id);
-        Users user = findUserById(id);
-        usersRepository.delete(user); // Use Spring Data JPA repository.delete() to remove entity from database
+        if (usersRepository.deleteUserById(id) == 0) { // Use a @Modifying repository query to delete with a single statement
+            throw new UserNotFoundException(id);
+        }
+        usersSearchIndex.deleteDocuments(entityManager, List.of(id)); // Bulk statements skip entity events, so sync the search index explicitly
         log.info("User deleted with ID: {}", id);
     }
 
+    @CacheEvict(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, allEntries = true) // Cheaper than one eviction per id, and bulk deletes are rare
+    @Transactional
+    public int deleteUsers(List<Long> ids) {
+        log.info("Deleting {} users", ids.size());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int deletedRows = usersRepository.deleteUsersByIdIn(ids); // Ids that do not exist are simply not counted
+        usersSearchIndex.deleteDocuments(entityManager, ids);
+        log.info("Deleted {} users", deletedRows);
+        return deletedRows;
+    }
+
+    @Transactional(readOnly = true) // Read-only session (no snapshots, FlushMode.MANUAL) on a read-only JDBC connection
     public List<UserResponse> findAllUsers() {
         log.info("Fetching all users");
-        List<Users> users = usersRepository.findAll(); // Use Spring Data JPA repository.findAll() to retrieve all entities from database
+        return usersRepository.findAllUserResponses(); // Use a Spring Data JPA constructor-expression query, rows go straight into UserResponse
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserResponse> findUsersByFirstName(String firstName, boolean ignoreCase) {
+        log.info("Fetching users with first name: {} (ignore case: {})", firstName, ignoreCase);
+        List<Users> users = ignoreCase
+                ? usersRepository.findByFirstNameIgnoreCase(firstName) // Matches the indexed first_name_lower column
+                : usersRepository.findByFirstName(firstName); // Use a Spring Data JPA derived query, served by the first_name index
         return userConverter.toResponseList(users);
     }
 
+    @Transactional(readOnly = true)
+    public List<UserResponse> findUsersByLastName(String lastName, boolean ignoreCase) {
+        log.info("Fetching users with last name: {} (ignore case: {})", lastName, ignoreCase);
+        List<Users> users = ignoreCase
+                ? usersRepository.findByLastNameIgnoreCase(lastName)
+                : usersRepository.findByLastName(lastName); // Use a Spring Data JPA @Query, served by the leading column of the (last_name, first_name) index
+        return userConverter.toResponseList(users);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserResponse> findUsersByName(String firstName, String lastName, boolean ignoreCase) {
+        log.info("Fetching users with first name: {} and last name: {} (ignore case: {})", firstName, lastName, ignoreCase);
+        List<Users> users = ignoreCase
+                ? usersRepository.findByLastNameAndFirstNameIgnoreCase(lastName, firstName)
+                : usersRepository.findByLastNameAndFirstName(lastName, firstName);
+        return userConverter.toResponseList(users);
+    }
+
+    @Transactional(readOnly = true)
+    public UserPageResponse findUsersPage(Long afterId, int limit) {
+        log.info("Fetching users page after ID: {} with limit: {}", afterId, limit);
+        int pageSize = Math.min(Math.max(limit, 1), UserPageResponse.MAX_PAGE_SIZE);
+        long cursor = afterId != null ? afterId : 0L;
+        List<UserResponse> users = usersRepository.findUserResponsesByIdGreaterThan(cursor, Limit.of(pageSize + 1)); // Fetch one extra row to know whether a next page exists
+        return userConverter.toPageResponse(users, pageSize);
+    }
+
+    @Transactional(readOnly = true) // Repository streams keep the JDBC cursor open, so they need a surrounding transaction
+    public void exportUsers(Consumer<UserResponse> consumer) {
+        log.info("Exporting all users");
+        try (Stream<UserResponse> users = usersRepository.streamAllUserResponsesOrderById()) { // Use Spring Data JPA Stream query to read rows through a forward-only cursor
+            Iterator<UserResponse> iterator = users.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next()); // Projected rows never enter the persistence context, so it does not grow with the table
+                count++;
+            }
+            log.info("Exported {} users", count);
+        }
+    }
+
+    // No surrounding transaction: findById and findAllById run in the repository's own read-only one, so a lookup waiting for its
+    // batch holds no connection
+    @Cacheable(cacheNames = UserResponseCacheConfiguration.USER_RESPONSES_CACHE, key = "#id", sync = true) // sync: concurrent misses for one id wait for a single load instead of all querying
     public UserResponse getById(Long id) {
         log.info("Fetching user response with ID: {}", id);
+        if (userBatchLoader.isEnabled()) {
+            return userBatchLoader.load(SpringDataJpaExampleService.class, id, this::getUsersByIds); // Shares one multi-id query with concurrent lookups
+        }
         Users user = findUserById(id);
         return userConverter.toResponse(user);
     }
 
+    @Transactional(readOnly = true)
+    public List<UserResponse> getUsersByIds(List<Long> ids) {
+        log.info("Fetching {} users by ID", ids.size());
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        if (distinctIds.size() > UserPageResponse.MAX_PAGE_SIZE) {
+            throw new TooManyUserIdsException(distinctIds.size(), UserPageResponse.MAX_PAGE_SIZE);
+        }
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Users> users = usersRepository.findAllById(distinctIds).stream() // Use Spring Data JPA repository.findAllById() to load all ids with one IN query
+                .collect(Collectors.toMap(Users::getId, Function.identity()));
+        return userConverter.toResponseList(distinctIds.stream().map(users::get).filter(Objects::nonNull).toList()); // Back in request order, missing ids skipped
+    }
+
     private Users findUserById(Long id) {
         log.info("Fetching user with ID: {}", id);
         return usersRepository.findById(id)  // Use Spring Data JPA repository.findById() to retrieve entity by primary key
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
+                .orElseThrow(() -> new UserNotFoundException(id));
     }
 }
@@ -0,0 +1,142 @@
+package com.trio.spring.boot.jpa.hibernate.example.batching;
+
+import com.trio.spring.boot.jpa.hibernate.example.config.UserBatchLoadingProperties;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserBatchLoaderTest {
+
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+    private final Function<List<Long>, List<UserResponse>> batchFunction = ids -> {
+        batches.add(ids);
+        return ids.stream().filter(id -> id < 100).map(UserBatchLoaderTest::user).toList(); // Ids from 100 on do not exist
+    };
+
+    private UserBatchLoadingProperties properties;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserBatchLoadingProperties();
+        properties.setEnabled(true);
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldLoadConcurrentLookupsInOneBatch() throws Exception {
+        properties.setMaxBatchSize(8);
+        properties.setMaxDelay(Duration.ofMinutes(1)); // Only a full batch is loaded, so the outcome does not depend on timing
+        UserBatchLoader loader = new UserBatchLoader(properties);
+
+        List<UserResponse> users = loadConcurrently(loader, List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), users.stream().map(UserResponse::getId).toList());
+        assertEquals(1, batches.size());
+        assertEquals(8, batches.get(0).size());
+    }
+
+    @Test
+    void shouldShareResultOfSameIdInOneBatch() throws Exception {
+        properties.setMaxDelay(Duration.ofMillis(500)); // Far longer than starting five threads takes
+        UserBatchLoader loader = new UserBatchLoader(properties);
+
+        List<UserResponse> users = loadConcurrently(loader, List.of(1L, 1L, 1L, 1L, 2L));
+
+        assertEquals(List.of(1L, 1L, 1L, 1L, 2L), users.stream().map(UserResponse::getId).toList());
+        assertEquals(List.of(List.of(1L, 2L)), batches.stream().map(ids -> ids.stream().sorted().toList()).toList());
+    }
+
+    @Test
+    void shouldLoadLoneLookupAfterMaxDelay() {
+        properties.setMaxDelay(Duration.ofMillis(1));
+        UserBatchLoader loader = new UserBatchLoader(properties);
+
+        assertEquals(1L, loader.load(UserBatchLoaderTest.class, 1L, batchFunction).getId());
+        assertEquals(List.of(List.of(1L)), batches);
+    }
+
+    @Test
+    void shouldThrowNotFoundForMissingId() {
+        properties.setMaxDelay(Duration.ofMillis(1));
+        UserBatchLoader loader = new UserBatchLoader(properties);
+
+        assertThrows(UserNotFoundException.class, () -> loader.load(UserBatchLoaderTest.class, 100L, batchFunction));
+    }
+
+    @Test
+    void shouldFailEveryLookupOfFailedBatch() throws Exception {
+        properties.setMaxBatchSize(3);
+        properties.setMaxDelay(Duration.ofMinutes(1));
+        UserBatchLoader loader = new UserBatchLoader(properties);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<UserResponse>> lookups = IntStream.rangeClosed(1, 3)
+                .mapToObj(id -> executor.submit(() -> {
+                    start.await();
+                    return loader.load(UserBatchLoaderTest.class, (long) id, ids -> {
+                        throw new IllegalStateException("Database unavailable");
+                    });
+                }))
+                .toList();
+        start.countDown();
+
+        for (Future<UserResponse> lookup : lookups) {
+            Exception exception = assertThrows(Exception.class, lookup::get);
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+        }
+    }
+
+    @Test
+    void shouldKeepSourcesInSeparateBatches() {
+        properties.setMaxBatchSize(1);
+        UserBatchLoader loader = new UserBatchLoader(properties);
+
+        loader.load(String.class, 1L, batchFunction);
+        loader.load(Integer.class, 1L, batchFunction);
+
+        assertEquals(2, batches.size());
+    }
+
+    private List<UserResponse> loadConcurrently(UserBatchLoader loader, List<Long> ids) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UserResponse>> lookups = ids.stream()
+                .map(id -> executor.submit(() -> {
+                    start.await();
+                    return loader.load(UserBatchLoaderTest.class, id, batchFunction);
+                }))
+                .toList();
+        start.countDown();
+        List<UserResponse> users = new ArrayList<>();
+        for (Future<UserResponse> lookup : lookups) {
+            users.add(lookup.get());
+        }
+        return users;
+    }
+
+    private static UserResponse user(Long id) {
+        UserResponse user = new UserResponse();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,102 @@
+package com.trio.spring.boot.jpa.hibernate.example.batching;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserNotFoundException;
+import com.trio.spring.boot.jpa.hibernate.example.service.EntityManagerOperationsExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.HibernateSessionExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.SpringDataJpaExampleService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Eight concurrent lookups fill exactly one batch, the long max-delay keeps the outcome independent of timing
+@SpringBootTest(properties = {
+        "users.batch-loading.enabled=true",
+        "users.batch-loading.max-batch-size=8",
+        "users.batch-loading.max-delay=1m",
+        "users.response-cache.enabled=false"
+})
+@AutoConfigureTestDatabase
+@Sql(scripts = "classpath:sql/init_users.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:sql/cleanup_users.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class UserBatchLoadingIT {
+
+    private static final List<Long> IDS = List.of(1000L, 1001L, 1002L, 1003L, 1004L, 9001L, 9002L, 9003L); // The last three do not exist
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private SpringDataJpaExampleService springDataJpaExampleService;
+
+    @Autowired
+    private HibernateSessionExampleService hibernateSessionExampleService;
+
+    @Autowired
+    private EntityManagerOperationsExampleService entityManagerOperationsExampleService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldLoadConcurrentSpringDataLookupsWithOneQuery() throws Exception {
+        assertLoadedWithOneQuery(springDataJpaExampleService::getById);
+    }
+
+    @Test
+    void shouldLoadConcurrentHibernateSessionLookupsWithOneQuery() throws Exception {
+        assertLoadedWithOneQuery(hibernateSessionExampleService::getUserById);
+    }
+
+    @Test
+    void shouldLoadConcurrentEntityManagerLookupsWithOneQuery() throws Exception {
+        assertLoadedWithOneQuery(entityManagerOperationsExampleService::getUserById);
+    }
+
+    private void assertLoadedWithOneQuery(Function<Long, UserResponse> lookup) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(IDS.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<UserResponse>> lookups = IDS.stream()
+                    .map(id -> executor.submit(() -> {
+                        start.await();
+                        return lookup.apply(id);
+                    }))
+                    .toList();
+            start.countDown();
+
+            for (int i = 0; i < IDS.size(); i++) {
+                if (IDS.get(i) < 9000L) {
+                    assertEquals(IDS.get(i), lookups.get(i).get().getId());
+                } else {
+                    ExecutionException exception = assertThrows(ExecutionException.class, lookups.get(i)::get);
+                    assertInstanceOf(UserNotFoundException.class, exception.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,50 @@
+package com.trio.spring.boot.jpa.hibernate.example.benchmark;
+
+import com.trio.spring.boot.jpa.hibernate.example.SpringBootJpaHibernateExampleApplication;
+import com.trio.spring.boot.jpa.hibernate.example.search.UsersSearchIndex;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.stream.Stream;
+
+// Boots the application once per JMH trial against a private in-memory H2 database seeded with tableSize users
+final class BenchmarkApplication {
+
+    // Rows inserted by benchmarks themselves get ids above this offset so they never collide with seeded or generated ids
+    static final long EXTRA_ID_OFFSET = 100_000_000L;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(int tableSize, String... properties) {
+        return start(WebApplicationType.NONE, tableSize, properties);
+    }
+
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, int tableSize, String... properties) {
+        // Passed as command line arguments, default properties would lose against application.yml
+        String[] args = Stream.concat(Stream.of(
+                                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                                "spring.r2dbc.url=r2dbc:h2:mem:///benchmark",
+                                "users.sql-log.enabled=false",
+                                "logging.level.root=WARN"),
+                        Stream.of(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootJpaHibernateExampleApplication.class)
+                .web(webApplicationType)
+                .bannerMode(Banner.Mode.OFF)
+                .run(args);
+        seed(context.getBean(JdbcTemplate.class), tableSize);
+        context.getBean(UsersSearchIndex.class).rebuild(); // Seeded rows bypass Hibernate, so they have to be mass indexed
+        return context;
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int tableSize) {
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name) "
+                + "SELECT X, CONCAT('First', X), CONCAT('Last', X) FROM SYSTEM_RANGE(1, ?)", tableSize);
+        jdbcTemplate.execute("ALTER SEQUENCE users_seq RESTART WITH " + (tableSize + 1_000)); // Keep generated ids clear of the seeded ones
+    }
+}
@@ -0,0 +1,67 @@
+package com.trio.spring.boot.jpa.hibernate.example.benchmark;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.repository.UsersRepository;
+import com.trio.spring.boot.jpa.hibernate.example.service.EntityManagerOperationsExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.HibernateSessionExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.SpringDataJpaExampleService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+// Compares rows/sec of the single-insert path (one transaction per user) with the batched bulk path for each style. The statement
+// count of the bulk path is asserted by StatementBudgetIT, this only measures it.
+// Run with: mvn -Pload-test test -Dload.class=BulkInsertThroughputHarness [-Dload.args="5000"]
+public final class BulkInsertThroughputHarness {
+
+    private BulkInsertThroughputHarness() {
+    }
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start(0)) {
+            SpringDataJpaExampleService springDataJpaExampleService = context.getBean(SpringDataJpaExampleService.class);
+            HibernateSessionExampleService hibernateSessionExampleService = context.getBean(HibernateSessionExampleService.class);
+            EntityManagerOperationsExampleService entityManagerOperationsExampleService = context.getBean(EntityManagerOperationsExampleService.class);
+            UsersRepository usersRepository = context.getBean(UsersRepository.class);
+            List<UserRequest> userRequests = userRequests(rows);
+
+            System.out.printf("%-18s %8s %18s %18s %8s%n", "style", "rows", "single rows/s", "bulk rows/s", "speedup");
+            compare("spring-data-jpa", userRequests, springDataJpaExampleService::saveUser, springDataJpaExampleService::saveUsers);
+            usersRepository.deleteAllInBatch();
+            compare("hibernate-session", userRequests, hibernateSessionExampleService::saveUser, hibernateSessionExampleService::saveUsers);
+            usersRepository.deleteAllInBatch();
+            compare("entity-manager", userRequests, entityManagerOperationsExampleService::saveUser, entityManagerOperationsExampleService::saveUsers);
+        }
+    }
+
+    private static void compare(String style, List<UserRequest> userRequests, Consumer<UserRequest> singleInsert, Consumer<List<UserRequest>> bulkInsert) {
+        long singleStart = System.nanoTime();
+        userRequests.forEach(singleInsert);
+        double singleRowsPerSecond = rowsPerSecond(userRequests.size(), System.nanoTime() - singleStart);
+
+        long bulkStart = System.nanoTime();
+        bulkInsert.accept(userRequests);
+        double bulkRowsPerSecond = rowsPerSecond(userRequests.size(), System.nanoTime() - bulkStart);
+
+        System.out.printf("%-18s %8d %18.0f %18.0f %7.1fx%n", style, userRequests.size(), singleRowsPerSecond, bulkRowsPerSecond,
+                bulkRowsPerSecond / singleRowsPerSecond);
+    }
+
+    private static double rowsPerSecond(int rows, long elapsedNanos) {
+        return rows / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    private static List<UserRequest> userRequests(int rows) {
+        return IntStream.range(0, rows)
+                .mapToObj(i -> {
+                    UserRequest userRequest = new UserRequest();
+                    userRequest.setFirstName("First" + i);
+                    userRequest.setLastName("Last" + i);
+                    return userRequest;
+                })
+                .toList();
+    }
+}
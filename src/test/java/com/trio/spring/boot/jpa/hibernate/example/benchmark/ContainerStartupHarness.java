@@ -0,0 +1,104 @@
+package com.trio.spring.boot.jpa.hibernate.example.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Cold start of the container image: time from `docker run` to the first successful GET /api/v1/users/spring-data-jpa, and the
+// resident memory of the JVM right after that request, for the image before the startup optimizations and the current one.
+// Build both images first:
+//   docker build --target baseline -t trio-examples-application:baseline .
+//   docker build -t trio-examples-application:latest .
+// Run with: mvn -Pload-test test -Dload.class=ContainerStartupHarness [-Dload.args="<baseline image> <image> <runs>"]
+public final class ContainerStartupHarness {
+
+    private static final int CONTAINER_PORT = 2703;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private ContainerStartupHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> images = args.length >= 2 ? List.of(args[0], args[1])
+                : List.of("trio-examples-application:baseline", "trio-examples-application:latest");
+        int runs = args.length >= 3 ? Integer.parseInt(args[2]) : 5;
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        System.out.printf("%-40s %5s %18s %10s%n", "image", "run", "first request ms", "RSS MiB");
+        for (String image : images) {
+            long[] startupMillis = new long[runs];
+            long[] rssKb = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                Sample sample = measure(client, image);
+                startupMillis[run] = sample.startupMillis();
+                rssKb[run] = sample.rssKb();
+                System.out.printf("%-40s %5d %18d %10.1f%n", image, run + 1, sample.startupMillis(), sample.rssKb() / 1024.0);
+            }
+            System.out.printf("%-40s %5s %18d %10.1f%n", image, "p50", median(startupMillis), median(rssKb) / 1024.0);
+        }
+    }
+
+    private static Sample measure(HttpClient client, String image) throws Exception {
+        long start = System.nanoTime();
+        String container = docker("run", "-d", "-p", "0:" + CONTAINER_PORT, image); // Any free host port, runs never collide
+        try {
+            String binding = docker("port", container, CONTAINER_PORT + "/tcp").lines().findFirst().orElseThrow(); // e.g. 0.0.0.0:49153
+            URI uri = URI.create("http://localhost:" + binding.substring(binding.lastIndexOf(':') + 1) + "/api/v1/users/spring-data-jpa");
+            awaitFirstResponse(client, uri, start);
+            long startupMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            return new Sample(startupMillis, rssKb(container));
+        } finally {
+            docker("rm", "-f", container);
+        }
+    }
+
+    private static void awaitFirstResponse(HttpClient client, URI uri, long start) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build();
+        while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("No response from " + uri + " within " + STARTUP_TIMEOUT);
+    }
+
+    // The JVM is PID 1, the image starts it with an exec-form ENTRYPOINT
+    private static long rssKb(String container) throws IOException, InterruptedException {
+        return docker("exec", container, "cat", "/proc/1/status").lines()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .map(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static String docker(String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of("docker"));
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).strip();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " exited with " + process.exitValue());
+        }
+        return output;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Sample(long startupMillis, long rssKb) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.trio.spring.boot.jpa.hibernate.example.benchmark;
+
+import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Flush cost and persistence context footprint of managed users, with and without build-time bytecode enhancement. Enhanced,
+// a flush asks each user for the attributes its setters marked dirty; unenhanced, it compares every attribute with the
+// snapshot taken at load. Enhancement happens at build time, so compare a regular run with one on a clean, unenhanced build:
+// mvn clean -Pbenchmark test -Djmh.args="EnhancementBenchmark"
+// mvn clean -Pbenchmark test -Djmh.args="EnhancementBenchmark" -Dhibernate.enhance.skip
+// The retained heap per managed user is printed at setup and the allocation of loadUsers is reported by -prof gc; the
+// allocation reported for flush also counts the per-invocation load.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class EnhancementBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int managedUsers;
+
+    private ConfigurableApplicationContext context;
+    private SessionFactory sessionFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(managedUsers,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        sessionFactory = context.getBean(SessionFactory.class);
+        System.out.println("Users enhanced: " + SelfDirtinessTracker.class.isAssignableFrom(Users.class)
+                + ", retained bytes per managed user: " + retainedBytesPerUser());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // A read-write session holding managedUsers users, modifiedUsers of them changed, so the benchmark times the flush alone.
+    // Loading takes far longer than a flush, per-invocation setup is accurate enough at this scale.
+    @State(Scope.Thread)
+    public static class LoadedSession {
+
+        @Param({"0", "1"})
+        private int modifiedUsers;
+
+        private Session session;
+
+        @Setup(Level.Invocation)
+        public void open(EnhancementBenchmark benchmark) {
+            session = benchmark.sessionFactory.openSession();
+            session.beginTransaction();
+            List<Users> users = benchmark.loadUsers(session);
+            for (int i = 0; i < modifiedUsers; i++) {
+                users.get(i).setLastName("Modified" + i);
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() {
+            session.getTransaction().rollback(); // Leaves the table as seeded for the next invocation
+            session.close();
+        }
+    }
+
+    @Benchmark
+    public void flush(LoadedSession loadedSession) {
+        loadedSession.session.flush();
+    }
+
+    @Benchmark
+    public List<Users> loadUsers() {
+        try (Session session = sessionFactory.openSession()) {
+            return loadUsers(session);
+        }
+    }
+
+    private List<Users> loadUsers(Session session) {
+        return session.createSelectionQuery("from Users u where u.id <= :last order by u.id", Users.class)
+                .setParameter("last", (long) managedUsers)
+                .getResultList();
+    }
+
+    // Heap still in use while a session holds the users, entity entries and snapshots included
+    private long retainedBytesPerUser() {
+        loadUsers(); // Whatever the first query initializes lazily is not part of the footprint
+        long before = usedHeap();
+        try (Session session = sessionFactory.openSession()) {
+            List<Users> users = loadUsers(session);
+            long after = usedHeap();
+            return (after - before) / users.size();
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
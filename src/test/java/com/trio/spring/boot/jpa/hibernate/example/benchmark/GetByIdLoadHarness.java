@@ -0,0 +1,127 @@
+package com.trio.spring.boot.jpa.hibernate.example.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fires bursts of 1k, 5k and 10k concurrent GET /api/v1/users/{style}/{id} requests at the application serving requests on
+// platform threads and on virtual threads, for every access style, and prints throughput and latency percentiles.
+// The second-level and response caches are disabled so every request reaches JDBC. Virtual threads need a Java 21 runtime; on older ones
+// only platform threads are measured. Each in-flight request holds two sockets, so raise `ulimit -n` above twice the burst.
+// Run with: mvn -Pjava21,load-test test [-Dload.args="1000 5000"]
+public final class GetByIdLoadHarness {
+
+    private static final int TABLE_SIZE = 100_000;
+    private static final int ROUNDS = 3;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final List<String> STYLES = List.of("entity-manager", "hibernate-session", "spring-data-jpa");
+
+    private GetByIdLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> bursts = args.length > 0 ? Arrays.stream(args).map(Integer::valueOf).toList() : List.of(1_000, 5_000, 10_000);
+        int maxBurst = bursts.stream().max(Integer::compare).orElseThrow();
+        List<Boolean> virtualThreadModes = List.of(false, true);
+        if (Runtime.version().feature() < 21) {
+            System.out.println("Java " + Runtime.version().feature() + " has no virtual threads, measuring platform threads only");
+            virtualThreadModes = List.of(false);
+        }
+        System.out.printf("%-9s %-18s %7s %12s %9s %9s %9s %7s%n", "threads", "style", "burst", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (boolean virtualThreads : virtualThreadModes) {
+            try (ConfigurableApplicationContext context = BenchmarkApplication.start(WebApplicationType.SERVLET, TABLE_SIZE,
+                    "server.port=0",
+                    "spring.threads.virtual.enabled=" + virtualThreads,
+                    "server.tomcat.max-connections=" + (maxBurst + 1_000), // Let every request of a burst in, threads are what is compared
+                    "server.tomcat.accept-count=" + maxBurst,
+                    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                    "users.response-cache.enabled=false",
+                    "users.datasource.pool.leak-detection-threshold=0s")) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(30))
+                        .executor(clientExecutor)
+                        .build();
+                try {
+                    for (String style : STYLES) {
+                        String baseUrl = "http://localhost:" + port + "/api/v1/users/" + style + "/";
+                        burst(client, baseUrl, WARMUP_REQUESTS);
+                        for (int size : bursts) {
+                            Result result = Result.EMPTY;
+                            for (int round = 0; round < ROUNDS; round++) {
+                                result = result.merge(burst(client, baseUrl, size));
+                            }
+                            System.out.printf("%-9s %-18s %7d %12.0f %9.1f %9.1f %9.1f %7d%n", virtualThreads ? "virtual" : "platform", style, size,
+                                    result.throughput(), result.percentile(0.5), result.percentile(0.99), result.percentile(1.0), result.errors());
+                        }
+                    }
+                } finally {
+                    clientExecutor.shutdownNow();
+                }
+            }
+        }
+    }
+
+    // Sends all requests at once and waits for the last response
+    private static Result burst(HttpClient client, String baseUrl, int size) {
+        long[] latencies = new long[size];
+        AtomicInteger errors = new AtomicInteger();
+        List<CompletableFuture<?>> responses = new ArrayList<>(size);
+        long start = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            int index = i;
+            long sent = System.nanoTime();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + ThreadLocalRandom.current().nextLong(1, TABLE_SIZE + 1)))
+                    .timeout(Duration.ofMinutes(2))
+                    .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, failure) -> {
+                        latencies[index] = System.nanoTime() - sent;
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        return new Result(latencies, errors.get(), System.nanoTime() - start);
+    }
+
+    private record Result(long[] latencies, int errors, long elapsedNanos) {
+
+        static final Result EMPTY = new Result(new long[0], 0, 0);
+
+        Result merge(Result other) {
+            long[] merged = Arrays.copyOf(latencies, latencies.length + other.latencies.length);
+            System.arraycopy(other.latencies, 0, merged, latencies.length, other.latencies.length);
+            return new Result(merged, errors + other.errors, elapsedNanos + other.elapsedNanos);
+        }
+
+        double throughput() {
+            return latencies.length / (elapsedNanos / 1e9);
+        }
+
+        double percentile(double percentile) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
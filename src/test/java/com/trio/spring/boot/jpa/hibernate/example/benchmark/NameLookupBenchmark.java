@@ -0,0 +1,96 @@
+package com.trio.spring.boot.jpa.hibernate.example.benchmark;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.service.SpringDataJpaExampleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Exact and case-insensitive name lookups on a 1M-row table, with the name indexes declared on Users and with them dropped.
+// The second-level and query caches are disabled so every call reaches the database; the H2 plan of each lookup is printed at setup.
+// Run with: mvn -Pbenchmark test -Djmh.args="NameLookupBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class NameLookupBenchmark {
+
+    private static final int TABLE_SIZE = 1_000_000;
+
+    private static final List<String> INDEXES = List.of(
+            "idx_users_first_name",
+            "idx_users_last_name_first_name",
+            "idx_users_first_name_lower",
+            "idx_users_last_name_lower_first_name_lower");
+
+    private static final List<String> EXPLAINED_QUERIES = List.of(
+            "SELECT * FROM users WHERE first_name = 'First42'",
+            "SELECT * FROM users WHERE last_name = 'Last42'",
+            "SELECT * FROM users WHERE last_name = 'Last42' AND first_name = 'First42'",
+            "SELECT * FROM users WHERE first_name_lower = LOWER('FIRST42')",
+            "SELECT * FROM users WHERE last_name_lower = LOWER('LAST42') AND first_name_lower = LOWER('FIRST42')");
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private SpringDataJpaExampleService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(TABLE_SIZE,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        service = context.getBean(SpringDataJpaExampleService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        if (!indexed) {
+            INDEXES.forEach(index -> jdbcTemplate.execute("DROP INDEX " + index));
+        }
+        for (String query : EXPLAINED_QUERIES) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + query, String.class);
+            System.out.println(query + " -> " + plan.substring(plan.indexOf("/*"))); // /* PUBLIC.USERS.tableScan */ or /* PUBLIC.IDX_...: ... */
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserResponse> byFirstName() {
+        return service.findUsersByFirstName("First" + randomId(), false);
+    }
+
+    @Benchmark
+    public List<UserResponse> byLastName() {
+        return service.findUsersByLastName("Last" + randomId(), false);
+    }
+
+    @Benchmark
+    public List<UserResponse> byName() {
+        long id = randomId();
+        return service.findUsersByName("First" + id, "Last" + id, false);
+    }
+
+    @Benchmark
+    public List<UserResponse> byFirstNameIgnoreCase() {
+        return service.findUsersByFirstName("FIRST" + randomId(), true);
+    }
+
+    @Benchmark
+    public List<UserResponse> byNameIgnoreCase() {
+        long id = randomId();
+        return service.findUsersByName("first" + id, "LAST" + id, true);
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, TABLE_SIZE + 1);
+    }
+}
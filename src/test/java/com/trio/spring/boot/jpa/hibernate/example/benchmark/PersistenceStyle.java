@@ -0,0 +1,54 @@
+package com.trio.spring.boot.jpa.hibernate.example.benchmark;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import com.trio.spring.boot.jpa.hibernate.example.service.EntityManagerOperationsExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.HibernateSessionExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.SpringDataJpaExampleService;
+import org.springframework.context.ApplicationContext;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// The three access styles behind one set of operations, so every benchmark can be parameterised by style
+public enum PersistenceStyle {
+
+    SPRING_DATA_JPA {
+        @Override
+        UserOperations operations(ApplicationContext context) {
+            SpringDataJpaExampleService service = context.getBean(SpringDataJpaExampleService.class);
+            return new UserOperations(service::getById, service::findAllUsers, service::saveUser, (id, request) -> service.updateUser(id, request, null),
+                    (id, request) -> service.updateUserDirect(id, request, null), service::deleteUser);
+        }
+    },
+    HIBERNATE_SESSION {
+        @Override
+        UserOperations operations(ApplicationContext context) {
+            HibernateSessionExampleService service = context.getBean(HibernateSessionExampleService.class);
+            return new UserOperations(service::getUserById, service::findAllUsers, service::saveUser, (id, request) -> service.updateUser(id, request, null),
+                    (id, request) -> service.updateUserDirect(id, request, null), service::deleteUser);
+        }
+    },
+    ENTITY_MANAGER {
+        @Override
+        UserOperations operations(ApplicationContext context) {
+            EntityManagerOperationsExampleService service = context.getBean(EntityManagerOperationsExampleService.class);
+            return new UserOperations(service::getUserById, service::findAllUsers, service::saveUser, (id, request) -> service.updateUser(id, request, null),
+                    (id, request) -> service.updateUserDirect(id, request, null), service::deleteUser);
+        }
+    };
+
+    abstract UserOperations operations(ApplicationContext context);
+
+    record UserOperations(Function<Long, UserResponse> getById,
+                          Supplier<List<UserResponse>> findAll,
+                          Function<UserRequest, Users> save,
+                          BiFunction<Long, UserRequest, Users> update,
+                          BiFunction<Long, UserRequest, Integer> updateDirect,
+                          Consumer<Long> delete) {
+    }
+}
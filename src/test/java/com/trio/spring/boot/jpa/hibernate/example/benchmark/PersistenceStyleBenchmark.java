@@ -0,0 +1,103 @@
+package com.trio.spring.boot.jpa.hibernate.example.benchmark;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Throughput and latency percentiles (SampleTime reports p99) of the CRUD operations for each access style and table size.
+// Run with: mvn -Pbenchmark test -Djmh.args="PersistenceStyleBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PersistenceStyleBenchmark {
+
+    @Param({"SPRING_DATA_JPA", "HIBERNATE_SESSION", "ENTITY_MANAGER"})
+    private PersistenceStyle style;
+
+    @Param({"1000", "100000", "1000000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private PersistenceStyle.UserOperations operations;
+    private UserRequest userRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(tableSize, "users.response-cache.enabled=false"); // The response cache is shared by all styles and would hide their differences
+        operations = style.operations(context);
+
+        userRequest = new UserRequest();
+        userRequest.setFirstName("Benchmark");
+        userRequest.setLastName("User");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserResponse getById() {
+        return operations.getById().apply(randomSeededId());
+    }
+
+    @Benchmark
+    public List<UserResponse> findAll() {
+        return operations.findAll().get();
+    }
+
+    @Benchmark
+    public Users save() {
+        return operations.save().apply(userRequest);
+    }
+
+    @Benchmark
+    public Users update() {
+        return operations.update().apply(randomSeededId(), userRequest);
+    }
+
+    @Benchmark
+    public int updateDirect() {
+        return operations.updateDirect().apply(randomSeededId(), userRequest);
+    }
+
+    @Benchmark
+    public void delete(DeleteState deleteState) {
+        operations.delete().accept(deleteState.userId);
+    }
+
+    private long randomSeededId() {
+        return ThreadLocalRandom.current().nextLong(1, tableSize + 1L);
+    }
+
+    // Inserts a throwaway row before every delete invocation, outside the measured time, so the table size stays stable
+    @State(Scope.Thread)
+    public static class DeleteState {
+
+        private final AtomicLong nextId = new AtomicLong(BenchmarkApplication.EXTRA_ID_OFFSET);
+        private JdbcTemplate jdbcTemplate;
+        private long userId;
+
+        @Setup(Level.Trial)
+        public void setUp(PersistenceStyleBenchmark benchmark) {
+            jdbcTemplate = benchmark.context.getBean(JdbcTemplate.class);
+        }
+
+        @Setup(Level.Invocation)
+        public void insertUser() {
+            userId = nextId.incrementAndGet();
+            jdbcTemplate.update("INSERT INTO users (id, first_name, last_name) VALUES (?, 'Delete', 'Me')", userId);
+        }
+    }
+}
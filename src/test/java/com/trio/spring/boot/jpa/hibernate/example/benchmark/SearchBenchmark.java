@@ -0,0 +1,56 @@
+package com.trio.spring.boot.jpa.hibernate.example.benchmark;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.service.EntityManagerOperationsExampleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Search is only exposed by the EntityManager style, so it is measured on its own at each table size.
+// Exact names, short prefixes and misspelled names exercise the prefix and fuzzy paths of the search index.
+// Run with: mvn -Pbenchmark test -Djmh.args="SearchBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SearchBenchmark {
+
+    private static final int MAX_RESULTS = 20; // The endpoint's default, a typeahead page
+
+    @Param({"1000", "100000", "1000000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerOperationsExampleService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(tableSize);
+        service = context.getBean(EntityManagerOperationsExampleService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserResponse> search() {
+        return service.findAllBySearchParam("First" + ThreadLocalRandom.current().nextInt(1, tableSize + 1), MAX_RESULTS);
+    }
+
+    @Benchmark
+    public List<UserResponse> prefixSearch() {
+        return service.findAllBySearchParam("Last" + ThreadLocalRandom.current().nextInt(1, 100), MAX_RESULTS); // Typeahead style, many matching names
+    }
+
+    @Benchmark
+    public List<UserResponse> typoSearch() {
+        return service.findAllBySearchParam("Frist" + ThreadLocalRandom.current().nextInt(1, tableSize + 1), MAX_RESULTS); // No prefix match, falls back to fuzzy matching
+    }
+}
@@ -0,0 +1,56 @@
+package com.trio.spring.boot.jpa.hibernate.example.benchmark;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Latency of repeated id lookups over a hot set of users, with the second-level cache and the UserResponse cache in front of
+// it enabled and disabled.
+// Run with: mvn -Pbenchmark test -Djmh.args="SecondLevelCacheBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SecondLevelCacheBenchmark {
+
+    private static final int TABLE_SIZE = 100_000;
+
+    @Param({"SPRING_DATA_JPA", "HIBERNATE_SESSION", "ENTITY_MANAGER"})
+    private PersistenceStyle style;
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    @Param({"false", "true"})
+    private boolean responseCache;
+
+    @Param({"1000"})
+    private int hotSetSize; // Distinct ids looked up repeatedly, kept below users.cache.entity.maximum-size so they all fit
+
+    private ConfigurableApplicationContext context;
+    private PersistenceStyle.UserOperations operations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(TABLE_SIZE,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache,
+                "users.response-cache.enabled=" + responseCache);
+        operations = style.operations(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserResponse getById() {
+        return operations.getById().apply(ThreadLocalRandom.current().nextLong(1, hotSetSize + 1));
+    }
+}
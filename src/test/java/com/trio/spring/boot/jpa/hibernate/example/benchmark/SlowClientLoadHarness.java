@@ -0,0 +1,131 @@
+package com.trio.spring.boot.jpa.hibernate.example.benchmark;
+
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+// Many slow clients downloading the whole users table at once, from the three blocking list endpoints and from the reactive
+// NDJSON stream. Every client reads its response in small chunks with a pause in between, so the server cannot write faster
+// than the client reads. Prints per-client download time and the peak number of busy Tomcat request threads and MVC async
+// threads, i.e. how many server threads slow clients pin.
+// Run with: mvn -Pload-test test -Dload.class=SlowClientLoadHarness [-Dload.args="<clients> <rows> <chunk pause ms>"]
+public final class SlowClientLoadHarness {
+
+    private static final List<String> ENDPOINTS = List.of("entity-manager", "hibernate-session", "spring-data-jpa", "reactive");
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private SlowClientLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 300; // More than Tomcat's 200 request threads
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 100_000; // About 5 MB of JSON per response
+        long pauseMillis = args.length > 2 ? Long.parseLong(args[2]) : 2; // 8 KB every 2 ms, about 4 MB/s per client
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start(WebApplicationType.SERVLET, rows,
+                "server.port=0",
+                "users.datasource.pool.leak-detection-threshold=0s")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ThreadPoolExecutor requestThreads = (ThreadPoolExecutor) ((TomcatWebServer) ((WebServerApplicationContext) context).getWebServer())
+                    .getTomcat().getConnector().getProtocolHandler().getExecutor();
+            ThreadPoolTaskExecutor asyncThreads = context.getBean("applicationTaskExecutor", ThreadPoolTaskExecutor.class);
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            System.out.printf("%d clients, %d rows, 8 KB per %d ms%n", clients, rows, pauseMillis);
+            System.out.printf("%-18s %9s %9s %9s %14s %12s %7s%n", "endpoint", "p50 s", "p99 s", "total s", "peak requests", "peak async", "errors");
+            for (String endpoint : ENDPOINTS) {
+                URI uri = URI.create("http://localhost:" + port + "/api/v1/users/" + endpoint);
+                download(client, uri, 1, 0); // Warm up the endpoint
+                PeakSampler requestPeak = new PeakSampler(requestThreads::getActiveCount);
+                PeakSampler asyncPeak = new PeakSampler(asyncThreads::getActiveCount);
+                long start = System.nanoTime();
+                Result result = download(client, uri, clients, pauseMillis);
+                double total = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%-18s %9.2f %9.2f %9.2f %14d %12d %7d%n", endpoint, result.percentile(0.5), result.percentile(0.99), total,
+                        requestPeak.stop(), asyncPeak.stop(), result.errors());
+            }
+        }
+    }
+
+    private static Result download(HttpClient client, URI uri, int clients, long pauseMillis) throws Exception {
+        ExecutorService readers = Executors.newFixedThreadPool(clients);
+        AtomicInteger errors = new AtomicInteger();
+        try {
+            List<Future<Double>> downloads = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                downloads.add(readers.submit(() -> {
+                    long start = System.nanoTime();
+                    HttpRequest request = HttpRequest.newBuilder(uri).header("Accept", "application/x-ndjson, application/json").build();
+                    HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                    try (InputStream body = response.body()) {
+                        byte[] chunk = new byte[CHUNK_SIZE];
+                        while (body.readNBytes(chunk, 0, CHUNK_SIZE) > 0) {
+                            if (pauseMillis > 0) {
+                                Thread.sleep(pauseMillis);
+                            }
+                        }
+                    }
+                    if (response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    }
+                    return (System.nanoTime() - start) / 1e9;
+                }));
+            }
+            double[] seconds = new double[clients];
+            for (int i = 0; i < clients; i++) {
+                try {
+                    seconds[i] = downloads.get(i).get();
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                }
+            }
+            return new Result(seconds, errors.get());
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    private record Result(double[] seconds, int errors) {
+
+        double percentile(double percentile) {
+            double[] sorted = seconds.clone();
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1)];
+        }
+    }
+
+    // Samples a thread count every few milliseconds and keeps the highest value seen
+    private static final class PeakSampler {
+
+        private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        private final AtomicInteger peak = new AtomicInteger();
+
+        PeakSampler(IntSupplier activeThreads) {
+            sampler.scheduleAtFixedRate(() -> peak.accumulateAndGet(activeThreads.getAsInt(), Math::max), 0, 5, TimeUnit.MILLISECONDS);
+        }
+
+        int stop() throws InterruptedException {
+            sampler.shutdownNow();
+            sampler.awaitTermination(1, TimeUnit.SECONDS);
+            return peak.get();
+        }
+    }
+}
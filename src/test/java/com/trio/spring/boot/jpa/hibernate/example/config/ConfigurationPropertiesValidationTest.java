@@ -0,0 +1,46 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigurationPropertiesValidationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(PropertiesConfiguration.class);
+
+    @Test
+    void shouldAcceptDefaults() {
+        contextRunner.run(context -> assertNull(context.getStartupFailure()));
+    }
+
+    @Test
+    void shouldRejectBulkBatchSizeBelowOne() {
+        contextRunner.withPropertyValues("users.bulk.batch-size=0")
+                .run(context -> assertTrue(rootCauseMessage(context.getStartupFailure()).contains("batchSize")));
+    }
+
+    @Test
+    void shouldRejectBatchLoadingMaxBatchSizeAboveMaxPageSize() {
+        contextRunner.withPropertyValues("users.batch-loading.max-batch-size=" + (UserPageResponse.MAX_PAGE_SIZE + 1))
+                .run(context -> assertTrue(rootCauseMessage(context.getStartupFailure()).contains("maxBatchSize")));
+    }
+
+    private static String rootCauseMessage(Throwable failure) {
+        assertNotNull(failure);
+        Throwable cause = failure;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableConfigurationProperties({BulkInsertProperties.class, UserBatchLoadingProperties.class})
+    static class PropertiesConfiguration {
+    }
+}
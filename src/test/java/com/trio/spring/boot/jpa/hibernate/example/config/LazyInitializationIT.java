@@ -0,0 +1,40 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.springdoc.webmvc.api.OpenApiResource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+class LazyInitializationIT {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shouldCreateApiDocsOnFirstRequest() {
+        ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+        String[] resources = beanFactory.getBeanNamesForType(OpenApiResource.class, true, false);
+        assertEquals(1, resources.length);
+        assertTrue(beanFactory.getBeanDefinition(resources[0]).isLazyInit());
+        assertFalse(beanFactory.containsSingleton(resources[0]));
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/v3/api-docs", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().contains("Spring Boot JPA Hibernate Example API"));
+        assertTrue(beanFactory.containsSingleton(resources[0]));
+    }
+}
@@ -0,0 +1,53 @@
+package com.trio.spring.boot.jpa.hibernate.example.config;
+
+import ch.qos.logback.classic.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Boots an empty context, so only logging is initialized from logback-spring.xml
+class LogbackConfigurationIT {
+
+    @TempDir
+    private Path logDirectory;
+
+    @Test
+    void shouldWriteToLogFileWhenConfigured() throws IOException {
+        Path logFile = logDirectory.resolve("users.log");
+        try (ConfigurableApplicationContext context = start("--logging.file.name=" + logFile)) {
+            LoggerFactory.getLogger(LogbackConfigurationIT.class).info("Written to the log file");
+
+            assertTrue(Files.readString(logFile).contains("Written to the log file"));
+        }
+    }
+
+    @Test
+    void shouldLogOnlyToConsoleByDefault() {
+        try (ConfigurableApplicationContext context = start()) {
+            Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+
+            assertNotNull(root.getAppender("CONSOLE"));
+            assertNull(root.getAppender("FILE")); // Not base.xml's ${java.io.tmpdir}/spring.log
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String... args) {
+        return new SpringApplicationBuilder(EmptyConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class EmptyConfiguration {
+    }
+}
@@ -0,0 +1,55 @@
+package com.trio.spring.boot.jpa.hibernate.example.controller;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.CacheRegionStatisticsResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+@Sql(scripts = "classpath:sql/init_users.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:sql/cleanup_users.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class CacheStatisticsControllerIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void shouldReportCacheHitsForRepeatedLookups() {
+        restTemplate.getForEntity("http://localhost:" + port + "/api/v1/users/hibernate-session/1004", String.class);
+        restTemplate.getForEntity("http://localhost:" + port + "/api/v1/users/spring-data-jpa/1004", String.class);
+
+        ResponseEntity<List<CacheRegionStatisticsResponse>> response = restTemplate.exchange(
+                "http://localhost:" + port + "/api/v1/cache/statistics",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {
+                });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(3, response.getBody().size());
+
+        CacheRegionStatisticsResponse users = response.getBody().stream()
+                .filter(region -> "users".equals(region.getRegion()))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(users.getHitCount() >= 1);
+        assertTrue(users.getElementCount() >= 1);
+    }
+}
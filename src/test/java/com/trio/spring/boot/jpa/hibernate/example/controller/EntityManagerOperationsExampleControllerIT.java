@@ -1,8 +1,11 @@
 package com.trio.spring.boot.jpa.hibernate.example.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.search.UsersSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -34,6 +37,14 @@ class EntityManagerOperationsExampleControllerIT {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UsersSearchIndex usersSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        usersSearchIndex.rebuild(); // Rows inserted by @Sql bypass Hibernate, so index them before searching
+    }
+
     private String createUrl(String path) {
         return "http://localhost:" + port + "/api/v1/users/entity-manager" + path;
     }
@@ -60,6 +71,47 @@ class EntityManagerOperationsExampleControllerIT {
         assertEquals("Smith", firstUser.getLastName());
     }
 
+    @Test
+    void shouldGetUsersPageAfterCursor() {
+        ResponseEntity<UserPageResponse> response = restTemplate.getForEntity(createUrl("/page?afterId=1002&limit=1"), UserPageResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().getContent().size());
+        assertEquals(1003L, response.getBody().getContent().get(0).getId());
+        assertEquals(1003L, response.getBody().getNextCursor());
+    }
+
+    @Test
+    void shouldGetLastUsersPageWithoutCursor() {
+        ResponseEntity<UserPageResponse> response = restTemplate.getForEntity(createUrl("/page?afterId=1003"), UserPageResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1004L, response.getBody().getContent().get(0).getId());
+        assertNull(response.getBody().getNextCursor());
+    }
+
+    @Test
+    void shouldExportUsersAsNdjson() {
+        ResponseEntity<String> response = restTemplate.getForEntity(createUrl("/export"), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(response.getHeaders().getContentType()));
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().contains("{\"id\":1000,\"firstName\":\"Alice\",\"lastName\":\"Smith\",\"version\":0}\n"));
+    }
+
+    @Test
+    void shouldExportUsersAsCsv() {
+        ResponseEntity<String> response = restTemplate.getForEntity(createUrl("/export?format=CSV"), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().startsWith("id,first_name,last_name,version\n"));
+        assertTrue(response.getBody().contains("1000,Alice,Smith,0\n"));
+    }
+
     @Test
     void shouldGetUserById() {
         ResponseEntity<UserResponse> response = restTemplate.getForEntity(createUrl("/1000"), UserResponse.class);
@@ -71,6 +123,20 @@ class EntityManagerOperationsExampleControllerIT {
         assertEquals("Smith", response.getBody().getLastName());
     }
 
+    @Test
+    void shouldGetUsersByIdsInRequestOrder() {
+        ResponseEntity<List<UserResponse>> response = restTemplate.exchange(
+                createUrl("?ids=1002,9999,1000,1002"),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {
+                });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(List.of(1002L, 1000L), response.getBody().stream().map(UserResponse::getId).toList()); // Unknown ids are skipped, duplicates returned once
+    }
+
     @Test
     void shouldCreateUser() {
         UserRequest userRequest = new UserRequest();
@@ -88,6 +154,32 @@ class EntityManagerOperationsExampleControllerIT {
         assertTrue(response.getBody() > 0);
     }
 
+    @Test
+    void shouldCreateUsersInBulk() {
+        UserRequest first = new UserRequest();
+        first.setFirstName("Bulk");
+        first.setLastName("One");
+        UserRequest second = new UserRequest();
+        second.setFirstName("Bulk");
+        second.setLastName("Two");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<List<UserRequest>> request = new HttpEntity<>(List.of(first, second), headers);
+
+        ResponseEntity<List<Long>> response = restTemplate.exchange(
+                createUrl("/bulk"),
+                HttpMethod.POST,
+                request,
+                new ParameterizedTypeReference<>() {
+                });
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().size());
+        assertTrue(response.getBody().stream().allMatch(id -> id > 0));
+    }
+
     @Test
     void shouldUpdateUser() {
         UserRequest userRequest = new UserRequest();
@@ -109,6 +201,121 @@ class EntityManagerOperationsExampleControllerIT {
         assertEquals(1002L, response.getBody());
     }
 
+    @Test
+    void shouldUpdateUserDirect() {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setFirstName("Direct");
+        userRequest.setLastName("Update");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<UserRequest> request = new HttpEntity<>(userRequest, headers);
+
+        ResponseEntity<Long> response = restTemplate.exchange(
+                createUrl("/1003?mode=DIRECT"),
+                HttpMethod.PUT,
+                request,
+                Long.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1003L, response.getBody());
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenETagMatches() {
+        Long userId = createUser("Etag", "Reader");
+        ResponseEntity<UserResponse> response = restTemplate.getForEntity(createUrl("/" + userId), UserResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(0L, response.getBody().getVersion());
+        assertEquals("\"0\"", response.getHeaders().getETag());
+        assertEquals("no-cache, public", response.getHeaders().getCacheControl());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(response.getHeaders().getETag());
+        ResponseEntity<UserResponse> notModified = restTemplate.exchange(
+                createUrl("/" + userId),
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                UserResponse.class);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+    }
+
+    @Test
+    void shouldRevalidateUserListWithETag() {
+        ResponseEntity<String> response = restTemplate.getForEntity(createUrl(""), String.class);
+        String eTag = response.getHeaders().getETag();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(eTag);
+        assertEquals("no-cache, public", response.getHeaders().getCacheControl());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<String> notModified = restTemplate.exchange(createUrl(""), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals(eTag, notModified.getHeaders().getETag());
+        assertEquals("no-cache, public", notModified.getHeaders().getCacheControl());
+
+        createUser("List", "Changer");
+        ResponseEntity<String> changed = restTemplate.exchange(createUrl(""), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(eTag, changed.getHeaders().getETag());
+    }
+
+    @Test
+    void shouldRejectUpdateWithStaleIfMatch() {
+        Long userId = createUser("Etag", "Writer");
+        String eTag = restTemplate.getForEntity(createUrl("/" + userId), UserResponse.class).getHeaders().getETag();
+
+        ResponseEntity<Long> updated = restTemplate.exchange(createUrl("/" + userId), HttpMethod.PUT, ifMatch(eTag, "First", "Writer"), Long.class);
+
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertEquals("\"1\"", updated.getHeaders().getETag());
+
+        ResponseEntity<String> stale = restTemplate.exchange(createUrl("/" + userId), HttpMethod.PUT, ifMatch(eTag, "Second", "Writer"), String.class);
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, stale.getStatusCode());
+        assertEquals("First", restTemplate.getForObject(createUrl("/" + userId), UserResponse.class).getFirstName());
+    }
+
+    @Test
+    void shouldRejectDirectUpdateWithStaleIfMatch() {
+        Long userId = createUser("Etag", "Direct");
+
+        ResponseEntity<Long> updated = restTemplate.exchange(createUrl("/" + userId + "?mode=DIRECT"), HttpMethod.PUT, ifMatch("\"0\"", "First", "Direct"), Long.class);
+        ResponseEntity<String> stale = restTemplate.exchange(createUrl("/" + userId + "?mode=DIRECT"), HttpMethod.PUT, ifMatch("\"0\"", "Second", "Direct"), String.class);
+
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, stale.getStatusCode());
+        UserResponse user = restTemplate.getForObject(createUrl("/" + userId), UserResponse.class);
+        assertEquals("First", user.getFirstName());
+        assertEquals(1L, user.getVersion());
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenUpdatingMissingUser() {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setFirstName("Missing");
+        userRequest.setLastName("User");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<UserRequest> request = new HttpEntity<>(userRequest, headers);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                createUrl("/999999"),
+                HttpMethod.PUT,
+                request,
+                String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
     @Test
     void shouldDeleteUser() {
         ResponseEntity<Void> response = restTemplate.exchange(
@@ -136,4 +343,117 @@ class EntityManagerOperationsExampleControllerIT {
         UserResponse foundUser = response.getBody().get(0);
         assertTrue(foundUser.getFirstName().contains("Alice") || foundUser.getLastName().contains("Alice"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldSearchUsersByPrefix() {
+        ResponseEntity<List<UserResponse>> response = restTemplate.exchange(
+                createUrl("/search?searchParam=eth"),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {
+                });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().stream().anyMatch(user -> user.getId().equals(1004L)));
+    }
+
+    @Test
+    void shouldSearchUsersWithTypo() {
+        ResponseEntity<List<UserResponse>> response = restTemplate.exchange(
+                createUrl("/search?searchParam=Smyth"),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {
+                });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().stream().anyMatch(user -> "Smith".equals(user.getLastName())));
+    }
+
+    @Test
+    void shouldRequireEverySearchWord() {
+        ResponseEntity<List<UserResponse>> response = restTemplate.exchange(
+                createUrl("/search?searchParam=ali smi"),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {
+                });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(1000L), response.getBody().stream().map(UserResponse::getId).toList()); // Not every Alice or every Smith
+    }
+
+    @Test
+    void shouldListUsersInIdOrderForBlankSearch() {
+        ResponseEntity<List<UserResponse>> response = restTemplate.exchange(
+                createUrl("/search?searchParam=&maxResults=2"),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {
+                });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        List<Long> ids = response.getBody().stream().map(UserResponse::getId).toList();
+        assertEquals(2, ids.size());
+        assertTrue(ids.get(0) < ids.get(1));
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenDeletingMissingUser() {
+        ResponseEntity<String> response = restTemplate.exchange(
+                createUrl("/999999"),
+                HttpMethod.DELETE,
+                null,
+                String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void shouldDeleteUsersByIds() {
+        UserRequest first = new UserRequest();
+        first.setFirstName("Delete");
+        first.setLastName("One");
+        UserRequest second = new UserRequest();
+        second.setFirstName("Delete");
+        second.setLastName("Two");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        List<Long> ids = restTemplate.exchange(
+                createUrl("/bulk"),
+                HttpMethod.POST,
+                new HttpEntity<>(List.of(first, second), headers),
+                new ParameterizedTypeReference<List<Long>>() {
+                }).getBody();
+        assertNotNull(ids);
+
+        ResponseEntity<Integer> response = restTemplate.exchange(
+                createUrl("?ids=" + ids.get(0) + "," + ids.get(1) + ",999999"),
+                HttpMethod.DELETE,
+                null,
+                Integer.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody());
+    }
+
+    private Long createUser(String firstName, String lastName) {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setFirstName(firstName);
+        userRequest.setLastName(lastName);
+        return restTemplate.postForEntity(createUrl(""), userRequest, Long.class).getBody();
+    }
+
+    private static HttpEntity<UserRequest> ifMatch(String eTag, String firstName, String lastName) {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setFirstName(firstName);
+        userRequest.setLastName(lastName);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setIfMatch(eTag);
+        return new HttpEntity<>(userRequest, headers);
+    }
+}
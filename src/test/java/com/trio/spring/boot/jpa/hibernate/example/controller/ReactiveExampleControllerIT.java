@@ -0,0 +1,120 @@
+package com.trio.spring.boot.jpa.hibernate.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// R2DBC reads the database through its own connections, so both sides are pointed at one named in-memory database
+// instead of the random one @AutoConfigureTestDatabase would give the DataSource alone.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive"
+})
+@Sql(scripts = "classpath:sql/init_users.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:sql/cleanup_users.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class ReactiveExampleControllerIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String createUrl(String path) {
+        return "http://localhost:" + port + "/api/v1/users/reactive" + path;
+    }
+
+    @Test
+    void shouldStreamAllUsersAsNdjson() throws Exception {
+        ResponseEntity<String> response = get("", MediaType.APPLICATION_NDJSON, String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(response.getHeaders().getContentType()));
+        String[] lines = response.getBody().strip().split("\n");
+        assertEquals(5, lines.length);
+        UserResponse first = objectMapper.readValue(lines[0], UserResponse.class);
+        assertEquals(1000L, first.getId());
+        assertEquals("Alice", first.getFirstName());
+        assertEquals("Smith", first.getLastName());
+        assertEquals(1004L, objectMapper.readValue(lines[4], UserResponse.class).getId());
+    }
+
+    @Test
+    void shouldGetAllUsersAsJsonArray() {
+        ResponseEntity<List<UserResponse>> response = restTemplate.exchange(
+                createUrl(""),
+                HttpMethod.GET,
+                new HttpEntity<>(headers(MediaType.APPLICATION_JSON)),
+                new ParameterizedTypeReference<>() {
+                });
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(1000L, 1001L, 1002L, 1003L, 1004L), response.getBody().stream().map(UserResponse::getId).toList());
+    }
+
+    @Test
+    void shouldSearchUsersByNamePrefixIgnoringCase() {
+        assertEquals(List.of(1000L), searchIds("SMI"));
+        assertEquals(List.of(1001L, 1002L, 1004L), searchIds("b")); // Bob, Brown and Black, first and last names alike
+    }
+
+    @Test
+    void shouldTreatLikeWildcardsLiterally() {
+        assertEquals(List.of(), searchIds("%"));
+        assertEquals(List.of(), searchIds("_lice"));
+    }
+
+    @Test
+    void shouldGetUserById() {
+        ResponseEntity<UserResponse> response = get("/1003", MediaType.APPLICATION_JSON, UserResponse.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1003L, response.getBody().getId());
+        assertEquals("Diana", response.getBody().getFirstName());
+        assertEquals("White", response.getBody().getLastName());
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownId() {
+        ResponseEntity<String> response = get("/999999", MediaType.APPLICATION_JSON, String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    private List<Long> searchIds(String searchParam) {
+        ResponseEntity<List<UserResponse>> response = restTemplate.exchange(
+                createUrl("/search?searchParam={searchParam}"),
+                HttpMethod.GET,
+                new HttpEntity<>(headers(MediaType.APPLICATION_JSON)),
+                new ParameterizedTypeReference<>() {
+                },
+                searchParam);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody().stream().map(UserResponse::getId).toList();
+    }
+
+    private <T> ResponseEntity<T> get(String path, MediaType accept, Class<T> type) {
+        return restTemplate.exchange(createUrl(path), HttpMethod.GET, new HttpEntity<>(headers(accept)), type);
+    }
+
+    private static HttpHeaders headers(MediaType accept) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(accept));
+        return headers;
+    }
+}
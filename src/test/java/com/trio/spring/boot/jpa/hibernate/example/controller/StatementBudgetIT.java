@@ -0,0 +1,270 @@
+package com.trio.spring.boot.jpa.hibernate.example.controller;
+
+import com.trio.spring.boot.jpa.hibernate.example.config.BulkInsertProperties;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.support.SqlStatementCounter;
+import com.trio.spring.boot.jpa.hibernate.example.support.SqlStatementCounterConfiguration;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static com.trio.spring.boot.jpa.hibernate.example.config.UserResponseCacheConfiguration.USER_RESPONSES_CACHE;
+import static org.junit.jupiter.api.Assertions.*;
+
+// SQL budget of every endpoint of the three controllers, so an extra query (a merge() that reloads, a lazy load per row)
+// fails the build. Caches are emptied before each test, so every read has to reach the database.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+@Import(SqlStatementCounterConfiguration.class)
+@Sql(scripts = "classpath:sql/init_users.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:sql/cleanup_users.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class StatementBudgetIT {
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(700_000L); // Users inserted with plain SQL, far above the sequence
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private CacheManager userResponseCacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BulkInsertProperties bulkInsertProperties;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory.getCache().evictAllRegions();
+        userResponseCacheManager.getCache(USER_RESPONSES_CACHE).clear();
+        sqlStatementCounter.reset();
+    }
+
+    private String createUrl(String style, String path) {
+        return "http://localhost:" + port + "/api/v1/users/" + style + path;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"spring-data-jpa", "hibernate-session", "entity-manager"})
+    void shouldGetUsersWithOneSelect(String style) {
+        assertEquals(HttpStatus.OK, getList(style, "").getStatusCode());
+
+        assertOneSelect();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"spring-data-jpa", "hibernate-session", "entity-manager"})
+    void shouldAnswerRevalidatedUsersWithOneSelect(String style) {
+        String eTag = getList(style, "").getHeaders().getETag();
+        sqlStatementCounter.reset();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<String> response = restTemplate.exchange(createUrl(style, ""), HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertOneSelect(); // The ETag is derived from the listed rows, a 304 only saves serialization
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"spring-data-jpa", "hibernate-session", "entity-manager"})
+    void shouldGetUsersByIdsWithOneSelect(String style) {
+        ResponseEntity<List<UserResponse>> response = getList(style, "?ids=1000,1001,1002,1003");
+
+        assertEquals(4, response.getBody().size());
+        assertOneSelect(); // One IN query, not a lookup per id
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"spring-data-jpa", "hibernate-session", "entity-manager"})
+    void shouldGetUsersPageWithOneSelect(String style) {
+        ResponseEntity<UserPageResponse> response = restTemplate.getForEntity(createUrl(style, "/page?afterId=1000&limit=3"), UserPageResponse.class);
+
+        assertEquals(3, response.getBody().getContent().size());
+        assertOneSelect();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"spring-data-jpa", "hibernate-session", "entity-manager"})
+    void shouldExportUsersWithOneSelect(String style) {
+        ResponseEntity<String> response = restTemplate.getForEntity(createUrl(style, "/export?format=CSV"), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertOneSelect(); // One cursor over the whole table
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"spring-data-jpa", "hibernate-session", "entity-manager"})
+    void shouldGetUserByIdWithOneSelect(String style) {
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity(createUrl(style, "/1001"), UserResponse.class).getStatusCode());
+
+        assertOneSelect();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"spring-data-jpa", "hibernate-session", "entity-manager"})
+    void shouldCreateUserWithOneInsert(String style) {
+        ResponseEntity<Long> response = restTemplate.postForEntity(createUrl(style, ""), userRequest("Budget", "Create"), Long.class);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        sqlStatementCounter.assertInsertCount(1);
+        sqlStatementCounter.assertStatementCount(1); // No SELECT before the INSERT, ids come from the sequence
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"spring-data-jpa", "hibernate-session", "entity-manager"})
+    void shouldCreateUsersInBulkWithOneBatchedInsert(String style) {
+        List<UserRequest> userRequests = List.of(userRequest("Bulk", "One"), userRequest("Bulk", "Two"), userRequest("Bulk", "Three"));
+
+        ResponseEntity<List<Long>> response = restTemplate.exchange(createUrl(style, "/bulk"), HttpMethod.POST, new HttpEntity<>(userRequests),
+                new ParameterizedTypeReference<>() {
+                });
+
+        assertEquals(3, response.getBody().size());
+        sqlStatementCounter.assertInsertCount(1); // One JDBC batch
+        sqlStatementCounter.assertStatementCount(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"spring-data-jpa", "hibernate-session", "entity-manager"})
+    void shouldCreateUsersInBulkWithOneBatchedInsertPerBatchSize(String style) {
+        int batchSize = bulkInsertProperties.getBatchSize();
+        List<UserRequest> userRequests = IntStream.range(0, 2 * batchSize + 1)
+                .mapToObj(i -> userRequest("Bulk", "Batch" + i))
+                .toList();
+
+        ResponseEntity<List<Long>> response = restTemplate.exchange(createUrl(style, "/bulk"), HttpMethod.POST, new HttpEntity<>(userRequests),
+                new ParameterizedTypeReference<>() {
+                });
+
+        assertEquals(2 * batchSize + 1, response.getBody().size());
+        sqlStatementCounter.assertInsertCount(3); // Two full batches and the remainder, not a statement per user
+        sqlStatementCounter.assertStatementCount(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"spring-data-jpa", "hibernate-session", "entity-manager"})
+    void shouldUpdateUserWithOneSelectAndOneUpdate(String style) {
+        long id = insertUser();
+
+        ResponseEntity<Long> response = restTemplate.exchange(createUrl(style, "/" + id), HttpMethod.PUT,
+                new HttpEntity<>(userRequest("Budget", "Update")), Long.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        sqlStatementCounter.assertSelectCount(1); // No second SELECT from merge()
+        sqlStatementCounter.assertUpdateCount(1);
+        sqlStatementCounter.assertStatementCount(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"spring-data-jpa", "hibernate-session", "entity-manager"})
+    void shouldUpdateUserDirectWithOneUpdate(String style) {
+        long id = insertUser();
+
+        ResponseEntity<Long> response = restTemplate.exchange(createUrl(style, "/" + id + "?mode=DIRECT"), HttpMethod.PUT,
+                new HttpEntity<>(userRequest("Budget", "Direct")), Long.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        sqlStatementCounter.assertUpdateCount(1);
+        sqlStatementCounter.assertStatementCount(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"spring-data-jpa", "hibernate-session", "entity-manager"})
+    void shouldDeleteUserWithOneDelete(String style) {
+        long id = insertUser();
+
+        ResponseEntity<Void> response = restTemplate.exchange(createUrl(style, "/" + id), HttpMethod.DELETE, null, Void.class);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        sqlStatementCounter.assertDeleteCount(1);
+        sqlStatementCounter.assertStatementCount(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"spring-data-jpa", "hibernate-session", "entity-manager"})
+    void shouldDeleteUsersWithOneDelete(String style) {
+        long first = insertUser();
+        long second = insertUser();
+
+        ResponseEntity<Integer> response = restTemplate.exchange(createUrl(style, "?ids=" + first + "," + second), HttpMethod.DELETE, null, Integer.class);
+
+        assertEquals(2, response.getBody());
+        sqlStatementCounter.assertDeleteCount(1);
+        sqlStatementCounter.assertStatementCount(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/by-first-name?firstName=Alice", "/by-last-name?lastName=smith&ignoreCase=true", "/by-name?firstName=Alice&lastName=Smith"})
+    void shouldFindSpringDataUsersByNameWithOneSelect(String path) {
+        assertEquals(HttpStatus.OK, getList("spring-data-jpa", path).getStatusCode());
+
+        assertOneSelect();
+    }
+
+    @Test
+    void shouldSearchEntityManagerUsersWithOneSelect() {
+        restTemplate.postForEntity(createUrl("entity-manager", ""), userRequest("Searchable", "Budget"), Long.class); // Indexed on commit, unlike the @Sql rows
+        sessionFactory.getCache().evictAllRegions(); // The insert also put the user in the second-level cache
+        sqlStatementCounter.reset();
+
+        ResponseEntity<List<UserResponse>> response = getList("entity-manager", "/search?searchParam=Searchable");
+
+        assertEquals(1, response.getBody().size());
+        assertOneSelect(); // Lucene finds the ids, one query loads the users
+    }
+
+    private void assertOneSelect() {
+        sqlStatementCounter.assertSelectCount(1);
+        sqlStatementCounter.assertStatementCount(1);
+        sqlStatementCounter.assertNoNPlusOne();
+    }
+
+    private ResponseEntity<List<UserResponse>> getList(String style, String path) {
+        return restTemplate.exchange(createUrl(style, path), HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+        });
+    }
+
+    private long insertUser() {
+        long id = NEXT_ID.getAndIncrement();
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name) VALUES (?, ?, ?)", id, "Budget", "User" + id);
+        sqlStatementCounter.reset();
+        return id;
+    }
+
+    private static UserRequest userRequest(String firstName, String lastName) {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setFirstName(firstName);
+        userRequest.setLastName(lastName);
+        return userRequest;
+    }
+}
@@ -0,0 +1,80 @@
+package com.trio.spring.boot.jpa.hibernate.example.controller;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.IngestionStatus;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.IngestionTicketResponse;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.net.URI;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional, the users are written by the ingestion writer thread in its own transactions
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "users.ingestion.enabled=true")
+@AutoConfigureTestDatabase
+@Sql(scripts = "classpath:sql/cleanup_users.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class UserIngestionControllerIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    private String createUrl(String path) {
+        return "http://localhost:" + port + "/api/v1/users" + path;
+    }
+
+    @Test
+    void shouldAcceptUserAndCompleteTicket() throws InterruptedException {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setFirstName("Queued");
+        userRequest.setLastName("User");
+
+        ResponseEntity<IngestionTicketResponse> response = restTemplate.postForEntity(createUrl("/ingestion"), userRequest, IngestionTicketResponse.class);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(IngestionStatus.QUEUED, response.getBody().getStatus());
+        URI location = response.getHeaders().getLocation();
+        assertNotNull(location);
+        assertTrue(location.getPath().endsWith("/ingestion/" + response.getBody().getTicket()));
+
+        IngestionTicketResponse ticket = awaitDone(location);
+        assertEquals(IngestionStatus.COMPLETED, ticket.getStatus());
+        assertNotNull(ticket.getUserId());
+
+        ResponseEntity<UserResponse> user = restTemplate.getForEntity(createUrl("/spring-data-jpa/" + ticket.getUserId()), UserResponse.class);
+        assertEquals(HttpStatus.OK, user.getStatusCode());
+        assertNotNull(user.getBody());
+        assertEquals("Queued", user.getBody().getFirstName());
+        assertEquals("User", user.getBody().getLastName());
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownTicket() {
+        ResponseEntity<String> response = restTemplate.getForEntity(createUrl("/ingestion/" + UUID.randomUUID()), String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    private IngestionTicketResponse awaitDone(URI location) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        IngestionTicketResponse ticket = restTemplate.getForObject(location, IngestionTicketResponse.class);
+        while (ticket.getStatus() == IngestionStatus.QUEUED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            ticket = restTemplate.getForObject(location, IngestionTicketResponse.class);
+        }
+        return ticket;
+    }
+}
@@ -1,5 +1,6 @@
 package com.trio.spring.boot.jpa.hibernate.example.converter;
 
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
 import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
@@ -25,6 +26,7 @@ class UserConverterTest {
         testUser.setId(1L);
         testUser.setFirstName("John");
         testUser.setLastName("Doe");
+        testUser.setVersion(2L);
 
         userRequest = new UserRequest();
         userRequest.setFirstName("Jane");
@@ -80,6 +82,7 @@ class UserConverterTest {
         assertEquals(1L, result.getId());
         assertEquals("John", result.getFirstName());
         assertEquals("Doe", result.getLastName());
+        assertEquals(2L, result.getVersion());
     }
 
     @Test
@@ -116,4 +119,40 @@ class UserConverterTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    void shouldConvertResponsesToPageWithNextCursor() {
+        List<UserResponse> responses = List.of(userConverter.toResponse(testUser), response(2L), response(3L));
+
+        UserPageResponse result = userConverter.toPageResponse(responses, 2);
+
+        assertEquals(2, result.getContent().size());
+        assertEquals(2L, result.getContent().get(1).getId());
+        assertEquals(2L, result.getNextCursor());
+    }
+
+    @Test
+    void shouldConvertLastPageWithoutNextCursor() {
+        List<UserResponse> responses = List.of(userConverter.toResponse(testUser));
+
+        UserPageResponse result = userConverter.toPageResponse(responses, 2);
+
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void shouldConvertEmptyPage() {
+        UserPageResponse result = userConverter.toPageResponse(List.of(), 2);
+
+        assertNotNull(result.getContent());
+        assertTrue(result.getContent().isEmpty());
+        assertNull(result.getNextCursor());
+    }
+
+    private UserResponse response(Long id) {
+        UserResponse userResponse = new UserResponse();
+        userResponse.setId(id);
+        return userResponse;
+    }
 }
\ No newline at end of file
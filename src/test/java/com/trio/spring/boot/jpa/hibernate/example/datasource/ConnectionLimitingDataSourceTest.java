@@ -0,0 +1,75 @@
+package com.trio.spring.boot.jpa.hibernate.example.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionLimitingDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionLimitingDataSource(pool, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void shouldFailWhenAllConnectionsAreTaken() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(pool, times(1)).getConnection();
+    }
+
+    @Test
+    void shouldReleasePermitOnceWhenConnectionIsClosed() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        Connection limited = dataSource.getConnection();
+
+        limited.close();
+        limited.close();
+
+        assertEquals(1, dataSource.getAvailablePermits());
+        verify(connection, times(2)).close();
+        assertSame(connection, ((ConnectionProxy) limited).getTargetConnection());
+    }
+
+    @Test
+    void shouldReleasePermitWhenPoolFails() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("Connection is not available"));
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void shouldDelegateStatementsToPooledConnection() throws SQLException {
+        when(pool.getConnection()).thenReturn(connection);
+        when(connection.isReadOnly()).thenReturn(true);
+
+        try (Connection limited = dataSource.getConnection()) {
+            assertTrue(limited.isReadOnly());
+        }
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+}
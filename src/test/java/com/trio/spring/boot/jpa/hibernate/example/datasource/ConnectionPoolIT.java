@@ -0,0 +1,90 @@
+package com.trio.spring.boot.jpa.hibernate.example.datasource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:pool-primary;DB_CLOSE_DELAY=-1",
+        "users.datasource.replicas[0].name=a",
+        "users.datasource.replicas[0].url=jdbc:h2:mem:pool-replica-a;DB_CLOSE_DELAY=-1",
+        "users.datasource.replicas[0].username=sa",
+        "users.datasource.pool.maximum-pool-size=4",
+        "users.datasource.pool.connection-timeout=3s"
+})
+class ConnectionPoolIT {
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void shouldApplyPoolSettings() {
+        assertEquals("primary", primaryDataSource.getPoolName());
+        assertEquals(4, primaryDataSource.getMaximumPoolSize());
+        assertEquals(4, primaryDataSource.getMinimumIdle());
+        assertEquals(3_000, primaryDataSource.getConnectionTimeout());
+        assertEquals(120_000, primaryDataSource.getLeakDetectionThreshold());
+    }
+
+    @Test
+    void shouldPassDriverPropertiesToH2() {
+        String queryCacheSize = new JdbcTemplate(primaryDataSource).queryForObject(
+                "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = 'QUERY_CACHE_SIZE'", String.class);
+
+        assertEquals("64", queryCacheSize);
+    }
+
+    @Test
+    void shouldExposePoolMetricsOfPrimaryAndReplicas() {
+        restTemplate.getForEntity("http://localhost:" + port + "/api/v1/users/spring-data-jpa", String.class);
+
+        for (String metric : List.of("hikaricp.connections.active", "hikaricp.connections.idle", "hikaricp.connections.pending", "hikaricp.connections.acquire")) {
+            ResponseEntity<JsonNode> response = restTemplate.getForEntity("http://localhost:" + port + "/actuator/metrics/" + metric, JsonNode.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode(), metric);
+            assertEquals(List.of("primary", "replica-a"), pools(response.getBody()), metric);
+        }
+    }
+
+    @Test
+    void shouldPublishAcquireTimeHistogram() {
+        restTemplate.getForEntity("http://localhost:" + port + "/api/v1/users/spring-data-jpa", String.class);
+
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity(
+                "http://localhost:" + port + "/actuator/metrics/hikaricp.connections.acquire?tag=pool:replica-a", JsonNode.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        List<String> statistics = new ArrayList<>();
+        response.getBody().get("measurements").forEach(measurement -> statistics.add(measurement.get("statistic").asText()));
+        assertTrue(statistics.containsAll(List.of("COUNT", "TOTAL_TIME", "MAX")));
+        assertTrue(response.getBody().get("measurements").get(0).get("value").asDouble() > 0); // The read above went to the replica
+    }
+
+    private static List<String> pools(JsonNode metric) {
+        List<String> pools = new ArrayList<>();
+        metric.get("availableTags").forEach(tag -> {
+            if ("pool".equals(tag.get("tag").asText())) {
+                tag.get("values").forEach(value -> pools.add(value.asText()));
+            }
+        });
+        return pools.stream().sorted().toList();
+    }
+}
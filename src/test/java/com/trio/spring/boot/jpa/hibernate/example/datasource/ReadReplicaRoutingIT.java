@@ -0,0 +1,150 @@
+package com.trio.spring.boot.jpa.hibernate.example.datasource;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.service.EntityManagerOperationsExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.HibernateSessionExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.SpringDataJpaExampleService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two extra in-memory H2 databases stand in for the read replicas. Each holds a single user whose last name
+// names the database it lives in, so the result of a read shows which database served it.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "users.datasource.replicas[0].name=replica-a",
+        "users.datasource.replicas[0].url=jdbc:h2:mem:replica-a;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:sql/init_replica_a.sql'",
+        "users.datasource.replicas[0].username=sa",
+        "users.datasource.replicas[1].name=replica-b",
+        "users.datasource.replicas[1].url=jdbc:h2:mem:replica-b;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:sql/init_replica_b.sql'",
+        "users.datasource.replicas[1].username=sa",
+        "users.datasource.health-check.interval=1h", // Checks are triggered by the tests
+        "users.datasource.health-check.lag-query=SELECT lag_seconds FROM replica_status"
+})
+class ReadReplicaRoutingIT {
+
+    private static final long MARKER_ID = 900_000L; // Above the ids the users sequence hands out during the tests
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private SpringDataJpaExampleService springDataJpaExampleService;
+
+    @Autowired
+    private HibernateSessionExampleService hibernateSessionExampleService;
+
+    @Autowired
+    private EntityManagerOperationsExampleService entityManagerOperationsExampleService;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        new JdbcTemplate(primaryDataSource).update("MERGE INTO users (id, first_name, last_name) KEY (id) VALUES (?, 'Primary', 'Primary')", MARKER_ID);
+    }
+
+    @AfterEach
+    void restoreReplicas() {
+        replica("replica-a").update("UPDATE replica_status SET lag_seconds = 0");
+        replica("replica-b").update("UPDATE replica_status SET lag_seconds = 0");
+        replicaRoutingDataSource.checkReplicas();
+    }
+
+    @Test
+    void shouldSpreadSpringDataReadsOverReplicas() {
+        assertEquals(Set.of("A", "B"), servedBy(springDataJpaExampleService::findAllUsers));
+    }
+
+    @Test
+    void shouldSpreadSessionAndEntityManagerReadsOverReplicas() {
+        assertEquals(Set.of("A", "B"), servedBy(hibernateSessionExampleService::findAllUsers));
+        assertEquals(Set.of("A", "B"), servedBy(entityManagerOperationsExampleService::findAllUsers));
+    }
+
+    @Test
+    void shouldWriteToPrimary() {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setFirstName("Written");
+        userRequest.setLastName("Primary");
+
+        Long id = springDataJpaExampleService.saveUser(userRequest).getId();
+
+        assertEquals(1, new JdbcTemplate(primaryDataSource).queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, id));
+        assertEquals(0, replica("replica-a").queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, id));
+        assertEquals(0, replica("replica-b").queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, id));
+    }
+
+    @Test
+    void shouldSkipLaggingReplica() {
+        replica("replica-b").update("UPDATE replica_status SET lag_seconds = 60");
+
+        replicaRoutingDataSource.checkReplicas();
+
+        assertEquals(List.of("replica-a"), replicaRoutingDataSource.getAvailableReplicas());
+        assertEquals(Set.of("A"), servedBy(springDataJpaExampleService::findAllUsers));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenNoReplicaIsAvailable() {
+        replica("replica-a").update("UPDATE replica_status SET lag_seconds = 60");
+        replica("replica-b").update("UPDATE replica_status SET lag_seconds = 60");
+
+        replicaRoutingDataSource.checkReplicas();
+
+        assertTrue(replicaRoutingDataSource.getAvailableReplicas().isEmpty());
+        assertEquals(Set.of("Primary"), servedBy(springDataJpaExampleService::findAllUsers));
+        assertEquals(Set.of("Primary"), servedBy(hibernateSessionExampleService::findAllUsers));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "?ids=" + MARKER_ID})
+    void shouldServeETaggedListsFromReplicas(String query) {
+        for (String style : List.of("spring-data-jpa", "hibernate-session", "entity-manager")) {
+            assertEquals(Set.of("A", "B"), servedBy(() -> {
+                ResponseEntity<List<UserResponse>> response = restTemplate.exchange("/api/v1/users/" + style + query, HttpMethod.GET, null,
+                        new ParameterizedTypeReference<>() {
+                        });
+
+                assertNotNull(response.getHeaders().getETag()); // Derived from the rows the replica returned
+                return response.getBody();
+            }));
+        }
+    }
+
+    private Set<String> servedBy(Supplier<List<UserResponse>> read) {
+        return IntStream.range(0, 4)
+                .mapToObj(i -> read.get())
+                .flatMap(List::stream)
+                .filter(user -> user.getId() == MARKER_ID)
+                .map(UserResponse::getLastName)
+                .collect(Collectors.toSet());
+    }
+
+    private JdbcTemplate replica(String name) {
+        return new JdbcTemplate(replicaRoutingDataSource.getResolvedDataSources().get(name));
+    }
+}
@@ -0,0 +1,146 @@
+package com.trio.spring.boot.jpa.hibernate.example.datasource;
+
+import com.trio.spring.boot.jpa.hibernate.example.config.RoutingDataSourceProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private HikariDataSource primary;
+
+    @Mock
+    private HikariDataSource replicaA;
+
+    @Mock
+    private HikariDataSource replicaB;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private HikariPoolMXBean poolA;
+
+    @Mock
+    private HikariPoolMXBean poolB;
+
+    private RoutingDataSourceProperties.HealthCheck healthCheck;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        healthCheck = new RoutingDataSourceProperties.HealthCheck();
+        healthCheck.setInterval(Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void shouldAlternateReplicasWithRoundRobin() throws SQLException {
+        stubHealthyReplicas();
+        dataSource = create(ReplicaLoadBalancing.ROUND_ROBIN);
+
+        assertEquals(List.of("replica-a", "replica-b", "replica-a", "replica-b"),
+                List.of(dataSource.determineCurrentLookupKey(), dataSource.determineCurrentLookupKey(),
+                        dataSource.determineCurrentLookupKey(), dataSource.determineCurrentLookupKey()));
+    }
+
+    @Test
+    void shouldPickReplicaWithFewestActiveConnections() throws SQLException {
+        stubHealthyReplicas();
+        when(replicaA.getHikariPoolMXBean()).thenReturn(poolA);
+        when(replicaB.getHikariPoolMXBean()).thenReturn(poolB);
+        when(poolA.getActiveConnections()).thenReturn(5);
+        when(poolB.getActiveConnections()).thenReturn(2);
+        dataSource = create(ReplicaLoadBalancing.LEAST_CONNECTIONS);
+
+        assertEquals("replica-b", dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void shouldSkipReplicaThatFailsValidation() throws SQLException {
+        Connection invalidConnection = mock(Connection.class);
+        when(replicaA.getConnection()).thenReturn(connection);
+        when(replicaB.getConnection()).thenReturn(invalidConnection);
+        when(connection.isValid(1)).thenReturn(true);
+        when(invalidConnection.isValid(1)).thenReturn(false);
+        dataSource = create(ReplicaLoadBalancing.ROUND_ROBIN);
+
+        assertEquals(List.of("replica-a"), dataSource.getAvailableReplicas());
+        assertEquals("replica-a", dataSource.determineCurrentLookupKey());
+        assertEquals("replica-a", dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void shouldRouteToPrimaryWhenNoReplicaIsReachable() throws SQLException {
+        when(replicaA.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(replicaB.getConnection()).thenThrow(new SQLException("Connection refused"));
+        dataSource = create(ReplicaLoadBalancing.ROUND_ROBIN);
+
+        assertTrue(dataSource.getAvailableReplicas().isEmpty());
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void shouldSkipReplicaThatHangsPastHealthCheckTimeout() throws SQLException {
+        CountDownLatch release = new CountDownLatch(1);
+        healthCheck.setTimeout(Duration.ofMillis(200));
+        when(replicaA.getConnection()).thenReturn(connection);
+        when(replicaB.getConnection()).thenAnswer(invocation -> {
+            release.await(); // Stands in for a pool waiting out its connection-timeout
+            throw new SQLException("Connection is not available");
+        });
+        when(connection.isValid(1)).thenReturn(true);
+        try {
+            long start = System.nanoTime();
+            dataSource = create(ReplicaLoadBalancing.ROUND_ROBIN);
+
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+            assertEquals(List.of("replica-a"), dataSource.getAvailableReplicas());
+
+            dataSource.checkReplicas();
+
+            verify(replicaB, times(1)).getConnection(); // The stuck probe is awaited again, not started a second time
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private void stubHealthyReplicas() throws SQLException {
+        when(replicaA.getConnection()).thenReturn(connection);
+        when(replicaB.getConnection()).thenReturn(connection);
+        when(connection.isValid(1)).thenReturn(true);
+    }
+
+    private ReplicaRoutingDataSource create(ReplicaLoadBalancing loadBalancing) {
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-a", replicaA);
+        replicas.put("replica-b", replicaB);
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, replicas, pool -> pool, loadBalancing, healthCheck);
+        routingDataSource.afterPropertiesSet(); // Runs the first health check
+        return routingDataSource;
+    }
+}
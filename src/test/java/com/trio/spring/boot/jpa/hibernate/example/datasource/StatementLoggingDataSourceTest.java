@@ -0,0 +1,144 @@
+package com.trio.spring.boot.jpa.hibernate.example.datasource;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementLoggingDataSourceTest {
+
+    private final JdbcDataSource h2 = new JdbcDataSource();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(StatementLoggingDataSource.LOGGER_NAME);
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        h2.setURL("jdbc:h2:mem:statement-log;DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE people (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+            statement.execute("INSERT INTO people VALUES (1, 'Alice'), (2, 'Bob'), (3, 'Carol')");
+        }
+        events.start();
+        logger.addAppender(events);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        logger.detachAppender(events);
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE people");
+        }
+    }
+
+    @Test
+    void shouldLogSlowQueryWithBindValuesAndRowCount() throws SQLException {
+        StatementLoggingDataSource dataSource = new StatementLoggingDataSource(h2, "primary", Duration.ZERO, 0.0); // Every statement counts as slow
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT name FROM people WHERE id >= ?")) {
+            statement.setLong(1, 2L);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    assertNotNull(resultSet.getString(1));
+                }
+            }
+        }
+
+        ILoggingEvent event = singleEvent();
+        assertEquals(Level.WARN, event.getLevel());
+        assertEquals("Slow statement", event.getMessage());
+        Map<String, Object> fields = fields(event);
+        assertEquals("primary", fields.get("pool"));
+        assertEquals("SELECT name FROM people WHERE id >= ?", fields.get("sql"));
+        assertEquals(List.of(2L), fields.get("params"));
+        assertEquals(2L, fields.get("rows")); // Counted while the rows were read, logged when the ResultSet closed
+        assertInstanceOf(Double.class, fields.get("elapsedMs"));
+        assertInstanceOf(Double.class, fields.get("acquireMs"));
+    }
+
+    @Test
+    void shouldSkipFastStatementsUnlessSampled() throws SQLException {
+        StatementLoggingDataSource dataSource = new StatementLoggingDataSource(h2, "primary", Duration.ofMinutes(1), 0.0);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertEquals(1, statement.executeUpdate("UPDATE people SET name = 'Alicia' WHERE id = 1"));
+        }
+
+        assertTrue(events.list.isEmpty());
+    }
+
+    @Test
+    void shouldLogSampledStatementsAtInfo() throws SQLException {
+        StatementLoggingDataSource dataSource = new StatementLoggingDataSource(h2, "primary", Duration.ofMinutes(1), 1.0);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE people SET name = 'Alicia' WHERE id = 1");
+        }
+
+        ILoggingEvent event = singleEvent();
+        assertEquals(Level.INFO, event.getLevel());
+        assertEquals("Sampled statement", event.getMessage());
+        assertEquals("UPDATE people SET name = 'Alicia' WHERE id = 1", fields(event).get("sql"));
+        assertEquals(1L, fields(event).get("rows"));
+    }
+
+    @Test
+    void shouldLogBatchOnceWithFirstRowAndTotalRows() throws SQLException {
+        StatementLoggingDataSource dataSource = new StatementLoggingDataSource(h2, "primary", Duration.ZERO, 0.0);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("INSERT INTO people VALUES (?, ?)")) {
+            for (long id = 10; id < 13; id++) {
+                statement.setLong(1, id);
+                statement.setString(2, "Batch" + id);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+
+        Map<String, Object> fields = fields(singleEvent());
+        assertEquals(3, fields.get("batchSize"));
+        assertEquals(3L, fields.get("rows"));
+        assertEquals(List.of(10L, "Batch10"), fields.get("params"));
+    }
+
+    @Test
+    void shouldAlwaysLogFailedStatements() throws SQLException {
+        StatementLoggingDataSource dataSource = new StatementLoggingDataSource(h2, "primary", Duration.ofMinutes(1), 0.0);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertThrows(SQLException.class, () -> statement.executeQuery("SELECT * FROM missing_table"));
+        }
+
+        ILoggingEvent event = singleEvent();
+        assertEquals(Level.WARN, event.getLevel());
+        assertEquals("Failed statement", event.getMessage());
+        assertNotNull(fields(event).get("error"));
+    }
+
+    private ILoggingEvent singleEvent() {
+        assertEquals(1, events.list.size());
+        return events.list.get(0);
+    }
+
+    private static Map<String, Object> fields(ILoggingEvent event) {
+        return event.getKeyValuePairs().stream().collect(Collectors.toMap(pair -> pair.key, pair -> pair.value));
+    }
+}
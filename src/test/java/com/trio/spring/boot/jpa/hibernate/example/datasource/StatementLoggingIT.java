@@ -0,0 +1,56 @@
+package com.trio.spring.boot.jpa.hibernate.example.datasource;
+
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserNotFoundException;
+import com.trio.spring.boot.jpa.hibernate.example.service.HibernateSessionExampleService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// No @AutoConfigureTestDatabase, it would replace the routed DataSource and with it the statement log
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-logging;DB_CLOSE_DELAY=-1",
+        "users.sql-log.slow-threshold=0s", // Every statement counts as slow
+        "users.response-cache.enabled=false"
+})
+@ExtendWith(OutputCaptureExtension.class)
+class StatementLoggingIT {
+
+    @Autowired
+    private HibernateSessionExampleService hibernateSessionExampleService;
+
+    @Test
+    void shouldWriteStatementsAsJsonLines(CapturedOutput output) throws InterruptedException {
+        assertThrows(UserNotFoundException.class, () -> hibernateSessionExampleService.getUserById(424242L));
+
+        String line = awaitLine(output, "424242");
+        assertTrue(line.startsWith("{") && line.endsWith("}"));
+        assertTrue(line.contains("\"message\":\"Slow statement\""));
+        assertTrue(line.contains("\"pool\":\"primary\""));
+        assertTrue(line.contains("\"params\":[424242]"));
+        assertTrue(line.contains("\"rows\":0"));
+        assertTrue(line.contains("\"acquireMs\":"));
+    }
+
+    // The async appender writes on its own thread, shortly after the statement
+    private static String awaitLine(CapturedOutput output, String text) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<String> line = Arrays.stream(output.getOut().split("\\R"))
+                    .filter(candidate -> candidate.contains("\"sql\":") && candidate.contains(text))
+                    .findFirst();
+            if (line.isPresent()) {
+                return line.get();
+            }
+            Thread.sleep(20);
+        }
+        return fail("No statement log line containing " + text);
+    }
+}
@@ -0,0 +1,71 @@
+package com.trio.spring.boot.jpa.hibernate.example.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserExportWriterTest {
+
+    private UserExportWriter userExportWriter;
+    private List<UserResponse> users;
+
+    @BeforeEach
+    void setUp() {
+        userExportWriter = new UserExportWriter(new ObjectMapper());
+        users = List.of(response(1L, "John", "Doe", 0L), response(2L, "Jane", "Smith, \"Jr\"", 3L));
+    }
+
+    @Test
+    void shouldWriteUsersAsNdjson() throws IOException {
+        String result = export(UserExportFormat.NDJSON);
+
+        assertEquals("""
+                {"id":1,"firstName":"John","lastName":"Doe","version":0}
+                {"id":2,"firstName":"Jane","lastName":"Smith, \\"Jr\\"","version":3}
+                """, result);
+    }
+
+    @Test
+    void shouldWriteUsersAsCsvWithEscaping() throws IOException {
+        String result = export(UserExportFormat.CSV);
+
+        assertEquals("""
+                id,first_name,last_name,version
+                1,John,Doe,0
+                2,Jane,"Smith, ""Jr\""",3
+                """, result);
+    }
+
+    @Test
+    void shouldWriteOnlyHeaderWhenThereAreNoUsers() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        userExportWriter.stream(UserExportFormat.CSV, consumer -> {
+        }).writeTo(outputStream);
+
+        assertEquals("id,first_name,last_name,version\n", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    private String export(UserExportFormat format) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        userExportWriter.stream(format, consumer -> users.forEach(consumer)).writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private UserResponse response(Long id, String firstName, String lastName, Long version) {
+        UserResponse userResponse = new UserResponse();
+        userResponse.setId(id);
+        userResponse.setFirstName(firstName);
+        userResponse.setLastName(lastName);
+        userResponse.setVersion(version);
+        return userResponse;
+    }
+}
@@ -0,0 +1,223 @@
+package com.trio.spring.boot.jpa.hibernate.example.ingestion;
+
+import com.trio.spring.boot.jpa.hibernate.example.config.UserIngestionProperties;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.IngestionStatus;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.IngestionTicketResponse;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.exception.IngestionQueueFullException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.IngestionStoppedException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.IngestionTicketNotFoundException;
+import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import com.trio.spring.boot.jpa.hibernate.example.service.SpringDataJpaExampleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserIngestionQueueTest {
+
+    @Mock
+    private SpringDataJpaExampleService springDataJpaExampleService;
+
+    private UserIngestionProperties properties;
+    private UserIngestionQueue queue;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserIngestionProperties();
+        properties.setMaxBatchSize(10);
+        properties.setMaxLatency(Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null && queue.isRunning()) {
+            queue.stop();
+        }
+    }
+
+    @Test
+    void shouldWriteQueuedUsersInOneBatch() {
+        stubSaveUsers();
+        properties.setMaxBatchSize(5);
+        properties.setMaxLatency(Duration.ofMinutes(1)); // The batch closes when full, not when a slow submit outlasts maxLatency
+        queue = new UserIngestionQueue(springDataJpaExampleService, properties);
+        queue.start();
+
+        List<UUID> tickets = submit(5);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), awaitUserIds(tickets));
+        verify(springDataJpaExampleService, times(1)).saveUsers(anyList());
+    }
+
+    @Test
+    void shouldWakeWriterWhenPartialBatchFillsUp() {
+        stubSaveUsers();
+        properties.setMaxBatchSize(3);
+        properties.setMaxLatency(Duration.ofMinutes(1));
+        queue = new UserIngestionQueue(springDataJpaExampleService, properties);
+        queue.start();
+        List<UUID> first = submit(1);
+        while (queue.size() > 0) { // The writer took the first user into its batch and waits for two more
+            Thread.onSpinWait();
+        }
+
+        List<UUID> rest = submit(2); // The queue never holds maxBatchSize users, yet the batch is full
+
+        assertEquals(3, awaitUserIds(List.of(first.get(0), rest.get(0), rest.get(1))).size());
+        verify(springDataJpaExampleService, times(1)).saveUsers(anyList());
+    }
+
+    @Test
+    void shouldCapBatchesAtMaxBatchSize() {
+        stubSaveUsers();
+        properties.setMaxBatchSize(2);
+        queue = new UserIngestionQueue(springDataJpaExampleService, properties);
+        List<UUID> tickets = submit(5); // Queued before the writer starts, so the batches are deterministic
+
+        queue.start();
+
+        assertEquals(5, awaitUserIds(tickets).size());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UserRequest>> batches = ArgumentCaptor.forClass(List.class);
+        verify(springDataJpaExampleService, times(3)).saveUsers(batches.capture());
+        assertEquals(List.of(2, 2, 1), batches.getAllValues().stream().map(List::size).toList());
+    }
+
+    @Test
+    void shouldRejectUsersWhenQueueIsFull() {
+        properties.setQueueCapacity(4);
+        queue = new UserIngestionQueue(springDataJpaExampleService, properties); // Writer not started, nothing drains the queue
+        submit(4);
+
+        assertThrows(IngestionQueueFullException.class, () -> queue.submit(userRequest(5)));
+        assertEquals(4, queue.size());
+    }
+
+    @Test
+    void shouldFailOnlyTheBadUserWhenBatchFails() {
+        when(springDataJpaExampleService.saveUsers(anyList())).thenThrow(new IllegalStateException("Batch rolled back"));
+        when(springDataJpaExampleService.saveUser(any(UserRequest.class))).thenAnswer(invocation -> {
+            UserRequest request = invocation.getArgument(0);
+            if ("Bad".equals(request.getFirstName())) {
+                throw new IllegalArgumentException("Invalid user");
+            }
+            return user(nextId.getAndIncrement());
+        });
+        queue = new UserIngestionQueue(springDataJpaExampleService, properties);
+        UUID good = queue.submit(userRequest(1)).getTicket();
+        UUID bad = queue.submit(userRequest("Bad", "User")).getTicket();
+
+        queue.start();
+
+        IngestionTicketResponse goodTicket = awaitDone(good);
+        IngestionTicketResponse badTicket = awaitDone(bad);
+        assertEquals(IngestionStatus.COMPLETED, goodTicket.getStatus());
+        assertEquals(1L, goodTicket.getUserId());
+        assertEquals(IngestionStatus.FAILED, badTicket.getStatus());
+        assertEquals("Invalid user", badTicket.getError());
+    }
+
+    @Test
+    void shouldDrainQueueOnStop() {
+        stubSaveUsers();
+        properties.setMaxLatency(Duration.ofMinutes(1)); // The writer would otherwise wait for the batch to fill
+        queue = new UserIngestionQueue(springDataJpaExampleService, properties);
+        queue.start();
+        List<UUID> tickets = submit(3);
+
+        queue.stop();
+
+        assertTrue(tickets.stream().allMatch(ticket -> queue.getTicket(ticket).getStatus() == IngestionStatus.COMPLETED));
+    }
+
+    @Test
+    void shouldRejectUsersAfterStop() {
+        queue = new UserIngestionQueue(springDataJpaExampleService, properties);
+        queue.start();
+        queue.stop();
+
+        assertThrows(IngestionStoppedException.class, () -> queue.submit(userRequest(1))); // The writer is gone, a ticket would stay QUEUED forever
+        assertEquals(0, queue.size());
+        verifyNoInteractions(springDataJpaExampleService);
+    }
+
+    @Test
+    void shouldStopAfterWebServer() {
+        queue = new UserIngestionQueue(springDataJpaExampleService, properties);
+
+        // The server stops accepting connections one phase (1024) below graceful shutdown; lower phases stop later
+        assertTrue(queue.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1024);
+    }
+
+    @Test
+    void shouldThrowForUnknownTicket() {
+        queue = new UserIngestionQueue(springDataJpaExampleService, properties);
+
+        assertThrows(IngestionTicketNotFoundException.class, () -> queue.getTicket(UUID.randomUUID()));
+    }
+
+    private void stubSaveUsers() {
+        when(springDataJpaExampleService.saveUsers(anyList())).thenAnswer(invocation -> {
+            List<UserRequest> requests = invocation.getArgument(0);
+            return requests.stream().map(request -> user(nextId.getAndIncrement())).toList();
+        });
+    }
+
+    private List<UUID> submit(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> queue.submit(userRequest(i)).getTicket())
+                .toList();
+    }
+
+    private List<Long> awaitUserIds(List<UUID> tickets) {
+        return tickets.stream()
+                .map(this::awaitDone)
+                .peek(ticket -> assertEquals(IngestionStatus.COMPLETED, ticket.getStatus()))
+                .map(IngestionTicketResponse::getUserId)
+                .toList();
+    }
+
+    private IngestionTicketResponse awaitDone(UUID ticket) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        IngestionTicketResponse response = queue.getTicket(ticket);
+        while (response.getStatus() == IngestionStatus.QUEUED && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+            response = queue.getTicket(ticket);
+        }
+        return response;
+    }
+
+    private static UserRequest userRequest(int i) {
+        return userRequest("First" + i, "Last" + i);
+    }
+
+    private static UserRequest userRequest(String firstName, String lastName) {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setFirstName(firstName);
+        userRequest.setLastName(lastName);
+        return userRequest;
+    }
+
+    private static Users user(long id) {
+        Users user = new Users();
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,92 @@
+package com.trio.spring.boot.jpa.hibernate.example.metrics;
+
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserNotFoundException;
+import com.trio.spring.boot.jpa.hibernate.example.service.EntityManagerOperationsExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.HibernateSessionExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.SpringDataJpaExampleService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability // Tests only get a simple registry otherwise, without the Prometheus endpoint
+@AutoConfigureTestDatabase
+@Sql(scripts = "classpath:sql/init_users.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:sql/cleanup_users.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class PersistenceMetricsIT {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private SpringDataJpaExampleService springDataJpaExampleService;
+
+    @Autowired
+    private HibernateSessionExampleService hibernateSessionExampleService;
+
+    @Autowired
+    private EntityManagerOperationsExampleService entityManagerOperationsExampleService;
+
+    @Test
+    void shouldTimeServiceMethodsPerStyleAndOperation() {
+        long before = count("spring-data-jpa", "findAllUsers", "none");
+
+        springDataJpaExampleService.findAllUsers();
+        hibernateSessionExampleService.findUsersPage(null, 2);
+        entityManagerOperationsExampleService.findAllUsers();
+
+        assertEquals(before + 1, count("spring-data-jpa", "findAllUsers", "none"));
+        assertTrue(count("hibernate-session", "findUsersPage", "none") >= 1);
+        assertTrue(count("entity-manager", "findAllUsers", "none") >= 1);
+    }
+
+    @Test
+    void shouldTagFailedCallsWithException() {
+        assertThrows(UserNotFoundException.class, () -> hibernateSessionExampleService.getUserById(9999L));
+
+        assertTrue(count("hibernate-session", "getUserById", "UserNotFoundException") >= 1);
+    }
+
+    @Test
+    void shouldBridgeHibernateStatistics() {
+        entityManagerOperationsExampleService.getUserById(1001L);
+
+        assertTrue(meterRegistry.get("hibernate.sessions.open").functionCounter().count() >= 1);
+        assertNotNull(meterRegistry.get("hibernate.entities.loads").functionCounter());
+        assertNotNull(meterRegistry.get("hibernate.flushes").functionCounter());
+        assertNotNull(meterRegistry.get("hibernate.second.level.cache.requests").tag("result", "miss").functionCounter());
+        assertNotNull(meterRegistry.get("hibernate.query.executions.max").timeGauge());
+    }
+
+    @Test
+    void shouldExposePrometheusScrapeEndpoint() {
+        springDataJpaExampleService.findAllUsers();
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().contains("users_persistence_seconds_bucket{"));
+        assertTrue(response.getBody().contains("hibernate_sessions_open_total{"));
+    }
+
+    private long count(String style, String operation, String exception) {
+        Timer timer = meterRegistry.find(PersistenceMetricsAspect.METRIC_NAME)
+                .tags("style", style, "operation", operation, "exception", exception)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,116 @@
+package com.trio.spring.boot.jpa.hibernate.example.search;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import com.trio.spring.boot.jpa.hibernate.example.service.EntityManagerOperationsExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.HibernateSessionExampleService;
+import com.trio.spring.boot.jpa.hibernate.example.service.SpringDataJpaExampleService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.search.mapper.orm.Search;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Checks that writes from every access style, including bulk statements, reach the search index
+@SpringBootTest
+@AutoConfigureTestDatabase
+@Sql(scripts = "classpath:sql/init_users.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:sql/cleanup_users.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class UsersSearchIndexIT {
+
+    @Autowired
+    private UsersSearchIndex usersSearchIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SpringDataJpaExampleService springDataJpaExampleService;
+
+    @Autowired
+    private HibernateSessionExampleService hibernateSessionExampleService;
+
+    @Autowired
+    private EntityManagerOperationsExampleService entityManagerOperationsExampleService;
+
+    @BeforeEach
+    void setUp() {
+        usersSearchIndex.rebuild();
+    }
+
+    @Test
+    void shouldIndexPersistedUser() {
+        Long id = springDataJpaExampleService.saveUser(userRequest("Zelda", "Quinn")).getId();
+
+        assertTrue(searchIds("zel").contains(id));
+        assertTrue(searchIds("Quin").contains(id));
+    }
+
+    @Test
+    void shouldMatchPrefixLongerThanTwentyCharacters() {
+        Long id = springDataJpaExampleService.saveUser(userRequest("Wolfeschlegelsteinhausen", "Bergerdorff")).getId();
+
+        assertTrue(searchIds("Wolfeschlegelsteinhaus").contains(id));
+    }
+
+    @Test
+    void shouldReindexUserUpdatedInEntityMode() {
+        entityManagerOperationsExampleService.updateUser(1003L, userRequest("Dorothea", "Whitfield"), null);
+
+        assertTrue(searchIds("Doro").contains(1003L));
+        assertFalse(searchIds("Diana").contains(1003L));
+    }
+
+    @Test
+    void shouldReindexUserUpdatedWithDirectStatement() {
+        hibernateSessionExampleService.updateUserDirect(1004L, userRequest("Evander", "Blackwood"), null);
+
+        assertTrue(searchIds("Evan").contains(1004L));
+        assertFalse(searchIds("Ethan").contains(1004L));
+    }
+
+    @Test
+    void shouldRemoveDeletedUsersFromIndex() {
+        Long first = hibernateSessionExampleService.saveUser(userRequest("Yannick", "Removed")).getId();
+        Long second = entityManagerOperationsExampleService.saveUser(userRequest("Yara", "Removed")).getId();
+        assertEquals(2, countDocuments("Removed"));
+
+        springDataJpaExampleService.deleteUser(first);
+        entityManagerOperationsExampleService.deleteUsers(List.of(second));
+
+        assertEquals(0, countDocuments("Removed")); // Counts index documents, stale ones would be hidden when loading entities
+    }
+
+    private long countDocuments(String lastName) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return Search.session(entityManager).search(Users.class)
+                    .where(f -> f.match().field("lastName").matching(lastName))
+                    .fetchTotalHitCount();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private List<Long> searchIds(String term) {
+        return entityManagerOperationsExampleService.findAllBySearchParam(term, 20).stream()
+                .map(UserResponse::getId)
+                .toList();
+    }
+
+    private UserRequest userRequest(String firstName, String lastName) {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setFirstName(firstName);
+        userRequest.setLastName(lastName);
+        return userRequest;
+    }
+}
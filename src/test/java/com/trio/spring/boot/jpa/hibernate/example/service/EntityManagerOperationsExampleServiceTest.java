@@ -1,28 +1,47 @@
 package com.trio.spring.boot.jpa.hibernate.example.service;
 
+import com.trio.spring.boot.jpa.hibernate.example.batching.UserBatchLoader;
+import com.trio.spring.boot.jpa.hibernate.example.config.BulkInsertProperties;
 import com.trio.spring.boot.jpa.hibernate.example.converter.UserConverter;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserNotFoundException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserVersionMismatchException;
 import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import com.trio.spring.boot.jpa.hibernate.example.search.UsersSearchIndex;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CompoundSelection;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import org.hibernate.FlushMode;
+import org.hibernate.MultiIdentifierLoadAccess;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,21 +56,60 @@ class EntityManagerOperationsExampleServiceTest {
     @Mock
     private EntityTransaction entityTransaction;
 
+    @Mock
+    private Session session;
+
     @Mock
     private UserConverter userConverter;
 
     @Mock
-    private TypedQuery<Users> typedQuery;
+    private TypedQuery<UserResponse> typedQuery;
+
+    @Mock
+    private Query query;
 
     @Mock
     private CriteriaBuilder criteriaBuilder;
 
     @Mock
-    private CriteriaQuery<Users> criteriaQuery;
+    private CriteriaQuery<UserResponse> criteriaQuery;
 
     @Mock
     private Root<Users> root;
 
+    @Mock
+    private Path<Long> idPath;
+
+    @Mock
+    private Path<String> firstNamePath;
+
+    @Mock
+    private Path<String> lastNamePath;
+
+    @Mock
+    private Path<Long> versionPath;
+
+    @Mock
+    private CompoundSelection<UserResponse> userResponseSelection;
+
+    @Mock
+    private Predicate predicate;
+
+    @Mock
+    private Order order;
+
+    @Mock
+    private UsersSearchIndex usersSearchIndex;
+
+    @Mock
+    private UserBatchLoader userBatchLoader;
+
+    @Mock
+    private MultiIdentifierLoadAccess<Users> multiIdentifierLoadAccess;
+
+    @Spy
+    private BulkInsertProperties bulkInsertProperties = new BulkInsertProperties();
+
     @InjectMocks
     private EntityManagerOperationsExampleService service;
 
@@ -79,6 +137,7 @@ class EntityManagerOperationsExampleServiceTest {
     @Test
     void shouldGetUserById() {
         when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
         when(entityManager.find(Users.class, 1L)).thenReturn(testUser);
         when(userConverter.toResponse(testUser)).thenReturn(userResponse);
 
@@ -89,6 +148,9 @@ class EntityManagerOperationsExampleServiceTest {
         assertEquals("John", result.getFirstName());
         verify(entityManagerFactory).createEntityManager();
         verify(entityManager).find(Users.class, 1L);
+        verify(entityManager).setProperty(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+        verify(session).setDefaultReadOnly(true);
+        verify(session).doWork(any());
         verify(entityManager).close();
         verify(userConverter).toResponse(testUser);
     }
@@ -96,6 +158,7 @@ class EntityManagerOperationsExampleServiceTest {
     @Test
     void shouldThrowExceptionWhenUserNotFound() {
         when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
         when(entityManager.find(Users.class, 1L)).thenReturn(null);
 
         assertThrows(RuntimeException.class, () -> service.getUserById(1L));
@@ -104,6 +167,30 @@ class EntityManagerOperationsExampleServiceTest {
         verify(entityManager).close();
     }
 
+    @Test
+    void shouldLoadUserThroughBatchLoaderWhenEnabled() {
+        when(userBatchLoader.isEnabled()).thenReturn(true);
+        when(userBatchLoader.load(eq(EntityManagerOperationsExampleService.class), eq(1L), any())).thenReturn(userResponse);
+
+        assertSame(userResponse, service.getUserById(1L));
+        verify(entityManagerFactory, never()).createEntityManager();
+    }
+
+    @Test
+    void shouldGetUsersByIdsWithOneMultiLoad() {
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.byMultipleIds(Users.class)).thenReturn(multiIdentifierLoadAccess);
+        when(multiIdentifierLoadAccess.multiLoad(List.of(1L, 3L))).thenReturn(Arrays.asList(testUser, null));
+        when(userConverter.toResponseList(List.of(testUser))).thenReturn(List.of(userResponse));
+
+        List<UserResponse> result = service.getUsersByIds(List.of(1L, 3L, 1L));
+
+        assertEquals(List.of(userResponse), result);
+        verify(session).setDefaultReadOnly(true);
+        verify(entityManager).close();
+    }
+
     @Test
     void shouldSaveUser() {
         when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
@@ -121,6 +208,24 @@ class EntityManagerOperationsExampleServiceTest {
         verify(entityManager).close();
     }
 
+    @Test
+    void shouldSaveUsersInBatches() {
+        bulkInsertProperties.setBatchSize(2);
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(userConverter.toEntity(userRequest)).thenReturn(testUser);
+
+        List<Users> result = service.saveUsers(List.of(userRequest, userRequest, userRequest));
+
+        assertEquals(3, result.size());
+        verify(entityTransaction).begin();
+        verify(entityManager, times(3)).persist(testUser);
+        verify(entityManager).flush();
+        verify(entityManager).clear();
+        verify(entityTransaction).commit();
+        verify(entityManager).close();
+    }
+
     @Test
     void shouldUpdateUser() {
         when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
@@ -128,52 +233,153 @@ class EntityManagerOperationsExampleServiceTest {
         when(entityManager.find(Users.class, 1L)).thenReturn(testUser);
         when(userConverter.updateEntity(testUser, userRequest)).thenReturn(testUser);
 
-        Users result = service.updateUser(1L, userRequest);
+        Users result = service.updateUser(1L, userRequest, null);
 
         assertNotNull(result);
-        verify(entityManagerFactory, times(2)).createEntityManager();
+        verify(entityManagerFactory).createEntityManager();
         verify(entityManager).find(Users.class, 1L);
         verify(userConverter).updateEntity(testUser, userRequest);
         verify(entityTransaction).begin();
-        verify(entityManager).merge(testUser);
+        verify(entityManager, never()).merge(any());
         verify(entityTransaction).commit();
-        verify(entityManager, times(2)).close();
+        verify(entityManager).close();
     }
 
     @Test
-    void shouldDeleteUser() {
+    void shouldRejectUpdateWhenVersionIsStale() {
+        testUser.setVersion(2L);
         when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
         when(entityManager.getTransaction()).thenReturn(entityTransaction);
         when(entityManager.find(Users.class, 1L)).thenReturn(testUser);
 
+        assertThrows(UserVersionMismatchException.class, () -> service.updateUser(1L, userRequest, 1L));
+        verify(userConverter, never()).updateEntity(any(), any());
+        verify(entityManager, never()).flush();
+        verify(entityTransaction).rollback();
+        verify(entityTransaction, never()).commit();
+        verify(entityManager).close();
+    }
+
+    @Test
+    void shouldRejectDirectUpdateWhenVersionIsStale() {
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(entityManager.createQuery("UPDATE Users u SET u.firstName = :firstName, u.lastName = :lastName, u.version = u.version + 1 "
+                + "WHERE u.id = :id AND (:version IS NULL OR u.version = :version)")).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(0);
+        when(entityManager.find(Users.class, 1L)).thenReturn(testUser);
+
+        assertThrows(UserVersionMismatchException.class, () -> service.updateUserDirect(1L, userRequest, 1L));
+        verify(query).setParameter("version", 1L);
+        verifyNoInteractions(usersSearchIndex);
+        verify(entityTransaction).rollback();
+        verify(entityManager).close();
+    }
+
+    @Test
+    void shouldUpdateUserDirect() {
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(entityManager.createQuery("UPDATE Users u SET u.firstName = :firstName, u.lastName = :lastName, u.version = u.version + 1 "
+                + "WHERE u.id = :id AND (:version IS NULL OR u.version = :version)")).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(1);
+
+        int result = service.updateUserDirect(1L, userRequest, null);
+
+        assertEquals(1, result);
+        verify(query).setParameter("id", 1L);
+        verify(entityManager, never()).find(Users.class, 1L);
+        verify(usersSearchIndex).updateDocument(entityManager, 1L, userRequest);
+        verify(entityTransaction).commit();
+        verify(entityManager).close();
+    }
+
+    @Test
+    void shouldThrowWhenDirectUpdateMatchesNoRows() {
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(entityManager.createQuery("UPDATE Users u SET u.firstName = :firstName, u.lastName = :lastName, u.version = u.version + 1 "
+                + "WHERE u.id = :id AND (:version IS NULL OR u.version = :version)")).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(0);
+
+        assertThrows(UserNotFoundException.class, () -> service.updateUserDirect(1L, userRequest, null));
+        verify(entityTransaction).rollback();
+        verify(entityManager).close();
+    }
+
+    @Test
+    void shouldDeleteUser() {
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(entityManager.createQuery("DELETE FROM Users u WHERE u.id = :id")).thenReturn(query);
+        when(query.setParameter("id", 1L)).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(1);
+
         service.deleteUser(1L);
 
         verify(entityManagerFactory).createEntityManager();
         verify(entityTransaction).begin();
-        verify(entityManager).find(Users.class, 1L);
-        verify(entityManager).remove(testUser);
+        verify(entityManager, never()).find(Users.class, 1L);
+        verify(entityManager, never()).remove(any());
+        verify(usersSearchIndex).deleteDocuments(entityManager, List.of(1L));
+        verify(entityTransaction).commit();
+        verify(entityManager).close();
+    }
+
+    @Test
+    void shouldThrowWhenDeletingMissingUser() {
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(entityManager.createQuery("DELETE FROM Users u WHERE u.id = :id")).thenReturn(query);
+        when(query.setParameter("id", 1L)).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(0);
+
+        assertThrows(UserNotFoundException.class, () -> service.deleteUser(1L));
+        verify(entityTransaction).rollback();
+        verify(entityManager).close();
+    }
+
+    @Test
+    void shouldDeleteUsersByIds() {
+        List<Long> ids = List.of(1L, 2L);
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(entityManager.createQuery("DELETE FROM Users u WHERE u.id IN :ids")).thenReturn(query);
+        when(query.setParameter("ids", ids)).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(2);
+
+        int result = service.deleteUsers(ids);
+
+        assertEquals(2, result);
+        verify(usersSearchIndex).deleteDocuments(entityManager, ids);
         verify(entityTransaction).commit();
         verify(entityManager).close();
     }
 
     @Test
     void shouldFindAllUsers() {
-        List<Users> usersList = Arrays.asList(testUser);
         List<UserResponse> responseList = Arrays.asList(userResponse);
 
         when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
-        when(entityManager.createQuery("SELECT u FROM Users u", Users.class)).thenReturn(typedQuery);
-        when(typedQuery.getResultList()).thenReturn(usersList);
-        when(userConverter.toResponseList(usersList)).thenReturn(responseList);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
+        when(criteriaBuilder.createQuery(UserResponse.class)).thenReturn(criteriaQuery);
+        when(criteriaQuery.from(Users.class)).thenReturn(root);
+        stubUserResponseSelection();
+        when(criteriaQuery.select(userResponseSelection)).thenReturn(criteriaQuery);
+        when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(responseList);
 
         List<UserResponse> result = service.findAllUsers();
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
+        assertSame(responseList, result);
         verify(entityManagerFactory).createEntityManager();
-        verify(entityManager).createQuery("SELECT u FROM Users u", Users.class);
+        verify(criteriaBuilder).construct(UserResponse.class, idPath, firstNamePath, lastNamePath, versionPath);
         verify(entityManager).close();
-        verify(userConverter).toResponseList(usersList);
+        verifyNoInteractions(userConverter);
     }
 
     @Test
@@ -182,22 +388,86 @@ class EntityManagerOperationsExampleServiceTest {
         List<UserResponse> responseList = Arrays.asList(userResponse);
 
         when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
-        when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
-        when(criteriaBuilder.createQuery(Users.class)).thenReturn(criteriaQuery);
-        when(criteriaQuery.from(Users.class)).thenReturn(root);
-        when(criteriaQuery.select(root)).thenReturn(criteriaQuery);
-        when(criteriaQuery.where(any(jakarta.persistence.criteria.Predicate[].class))).thenReturn(criteriaQuery);
-        when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
-        when(typedQuery.getResultList()).thenReturn(usersList);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(usersSearchIndex.search(entityManager, "John", 20)).thenReturn(usersList);
         when(userConverter.toResponseList(usersList)).thenReturn(responseList);
 
-        List<UserResponse> result = service.findAllBySearchParam("John");
+        List<UserResponse> result = service.findAllBySearchParam("John", 20);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         verify(entityManagerFactory).createEntityManager();
-        verify(entityManager).getCriteriaBuilder();
+        verify(usersSearchIndex).search(entityManager, "John", 20);
+        verify(entityManager, never()).getCriteriaBuilder();
         verify(entityManager).close();
         verify(userConverter).toResponseList(usersList);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldCapSearchResultsAtMaxPageSize() {
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(usersSearchIndex.search(entityManager, "John", UserPageResponse.MAX_PAGE_SIZE)).thenReturn(List.of());
+        when(userConverter.toResponseList(List.of())).thenReturn(List.of());
+
+        service.findAllBySearchParam("John", UserPageResponse.MAX_PAGE_SIZE + 1);
+
+        verify(usersSearchIndex).search(entityManager, "John", UserPageResponse.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void shouldFindUsersPage() {
+        List<UserResponse> responseList = Arrays.asList(userResponse);
+        UserPageResponse pageResponse = new UserPageResponse();
+
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
+        when(criteriaBuilder.createQuery(UserResponse.class)).thenReturn(criteriaQuery);
+        when(criteriaQuery.from(Users.class)).thenReturn(root);
+        stubUserResponseSelection();
+        when(criteriaBuilder.greaterThan(idPath, 1000L)).thenReturn(predicate);
+        when(criteriaBuilder.asc(idPath)).thenReturn(order);
+        when(criteriaQuery.select(userResponseSelection)).thenReturn(criteriaQuery);
+        when(criteriaQuery.where(predicate)).thenReturn(criteriaQuery);
+        when(criteriaQuery.orderBy(order)).thenReturn(criteriaQuery);
+        when(entityManager.createQuery(criteriaQuery)).thenReturn(typedQuery);
+        when(typedQuery.setMaxResults(11)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(responseList);
+        when(userConverter.toPageResponse(responseList, 10)).thenReturn(pageResponse);
+
+        UserPageResponse result = service.findUsersPage(1000L, 10);
+
+        assertSame(pageResponse, result);
+        verify(criteriaBuilder).greaterThan(idPath, 1000L);
+        verify(typedQuery).setMaxResults(11);
+        verify(entityManager).close();
+    }
+
+    @Test
+    void shouldExportUsers() {
+        List<UserResponse> exported = new ArrayList<>();
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(entityManager.getTransaction()).thenReturn(entityTransaction);
+        when(entityManager.createQuery("SELECT new com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse(u.id, u.firstName, u.lastName, u.version) FROM Users u ORDER BY u.id", UserResponse.class)).thenReturn(typedQuery);
+        when(typedQuery.setHint(HibernateHints.HINT_FETCH_SIZE, 500)).thenReturn(typedQuery);
+        when(typedQuery.getResultStream()).thenReturn(Stream.of(userResponse));
+
+        service.exportUsers(exported::add);
+
+        assertEquals(List.of(userResponse), exported);
+        verify(typedQuery).getResultStream();
+        verify(entityManager, never()).clear();
+        verify(entityTransaction).commit();
+        verify(entityManager).close();
+    }
+
+    private void stubUserResponseSelection() {
+        when(root.<Long>get("id")).thenReturn(idPath);
+        when(root.<String>get("firstName")).thenReturn(firstNamePath);
+        when(root.<String>get("lastName")).thenReturn(lastNamePath);
+        when(root.<Long>get("version")).thenReturn(versionPath);
+        when(criteriaBuilder.construct(UserResponse.class, idPath, firstNamePath, lastNamePath, versionPath)).thenReturn(userResponseSelection);
+    }
+}
@@ -1,26 +1,41 @@
 package com.trio.spring.boot.jpa.hibernate.example.service;
 
+import com.trio.spring.boot.jpa.hibernate.example.batching.UserBatchLoader;
+import com.trio.spring.boot.jpa.hibernate.example.config.BulkInsertProperties;
 import com.trio.spring.boot.jpa.hibernate.example.converter.UserConverter;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserNotFoundException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserVersionMismatchException;
 import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import com.trio.spring.boot.jpa.hibernate.example.search.UsersSearchIndex;
+import org.hibernate.FlushMode;
+import org.hibernate.MultiIdentifierLoadAccess;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.query.MutationQuery;
 import org.hibernate.query.Query;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,7 +54,25 @@ class HibernateSessionExampleServiceTest {
     private Transaction transaction;
 
     @Mock
-    private Query<Users> query;
+    private Query<UserResponse> query;
+
+    @Mock
+    private ScrollableResults<UserResponse> scrollableResults;
+
+    @Mock
+    private MutationQuery mutationQuery;
+
+    @Mock
+    private UsersSearchIndex usersSearchIndex;
+
+    @Mock
+    private UserBatchLoader userBatchLoader;
+
+    @Mock
+    private MultiIdentifierLoadAccess<Users> multiIdentifierLoadAccess;
+
+    @Spy
+    private BulkInsertProperties bulkInsertProperties = new BulkInsertProperties();
 
     @InjectMocks
     private HibernateSessionExampleService service;
@@ -78,6 +111,9 @@ class HibernateSessionExampleServiceTest {
         assertEquals("John", result.getFirstName());
         verify(sessionFactory).openSession();
         verify(session).get(Users.class, 1L);
+        verify(session).setDefaultReadOnly(true);
+        verify(session).setHibernateFlushMode(FlushMode.MANUAL);
+        verify(session).doWork(any());
         verify(userConverter).toResponse(testUser);
     }
 
@@ -91,6 +127,29 @@ class HibernateSessionExampleServiceTest {
         verify(session).get(Users.class, 1L);
     }
 
+    @Test
+    void shouldLoadUserThroughBatchLoaderWhenEnabled() {
+        when(userBatchLoader.isEnabled()).thenReturn(true);
+        when(userBatchLoader.load(eq(HibernateSessionExampleService.class), eq(1L), any())).thenReturn(userResponse);
+
+        assertSame(userResponse, service.getUserById(1L));
+        verify(sessionFactory, never()).openSession();
+    }
+
+    @Test
+    void shouldGetUsersByIdsWithOneMultiLoad() {
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.byMultipleIds(Users.class)).thenReturn(multiIdentifierLoadAccess);
+        when(multiIdentifierLoadAccess.multiLoad(List.of(1L, 3L))).thenReturn(Arrays.asList(testUser, null));
+        when(userConverter.toResponseList(List.of(testUser))).thenReturn(List.of(userResponse));
+
+        List<UserResponse> result = service.getUsersByIds(List.of(1L, 3L, 1L));
+
+        assertEquals(List.of(userResponse), result);
+        verify(session).setDefaultReadOnly(true);
+        verify(session).close();
+    }
+
     @Test
     void shouldSaveUser() {
         when(sessionFactory.openSession()).thenReturn(session);
@@ -107,6 +166,24 @@ class HibernateSessionExampleServiceTest {
         verify(transaction).commit();
     }
 
+    @Test
+    void shouldSaveUsersInBatches() {
+        bulkInsertProperties.setBatchSize(2);
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(userConverter.toEntity(userRequest)).thenReturn(testUser);
+
+        List<Users> result = service.saveUsers(List.of(userRequest, userRequest, userRequest));
+
+        assertEquals(3, result.size());
+        verify(session).setJdbcBatchSize(2);
+        verify(session, times(3)).persist(testUser);
+        verify(session).flush();
+        verify(session).clear();
+        verify(transaction).commit();
+        verify(session).close();
+    }
+
     @Test
     void shouldUpdateUser() {
         when(sessionFactory.openSession()).thenReturn(session);
@@ -114,47 +191,189 @@ class HibernateSessionExampleServiceTest {
         when(session.get(Users.class, 1L)).thenReturn(testUser);
         when(userConverter.updateEntity(testUser, userRequest)).thenReturn(testUser);
 
-        Users result = service.updateUser(1L, userRequest);
+        Users result = service.updateUser(1L, userRequest, null);
 
         assertNotNull(result);
-        verify(sessionFactory, times(2)).openSession();
+        verify(sessionFactory).openSession();
         verify(session).get(Users.class, 1L);
         verify(userConverter).updateEntity(testUser, userRequest);
-        verify(session).merge(testUser);
+        verify(session, never()).merge(any());
         verify(transaction).commit();
     }
 
     @Test
-    void shouldDeleteUser() {
+    void shouldRollbackUpdateWhenUserNotFound() {
         when(sessionFactory.openSession()).thenReturn(session);
         when(session.beginTransaction()).thenReturn(transaction);
+        when(session.get(Users.class, 1L)).thenReturn(null);
+
+        assertThrows(UserNotFoundException.class, () -> service.updateUser(1L, userRequest, null));
+        verify(transaction).rollback();
+        verify(transaction, never()).commit();
+    }
+
+    @Test
+    void shouldRejectUpdateWhenVersionIsStale() {
+        testUser.setVersion(2L);
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(session.get(Users.class, 1L)).thenReturn(testUser);
+
+        assertThrows(UserVersionMismatchException.class, () -> service.updateUser(1L, userRequest, 1L));
+        verify(userConverter, never()).updateEntity(any(), any());
+        verify(session, never()).flush();
+        verify(transaction).rollback();
+        verify(transaction, never()).commit();
+    }
+
+    @Test
+    void shouldRejectDirectUpdateWhenVersionIsStale() {
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(session.createMutationQuery("UPDATE Users u SET u.firstName = :firstName, u.lastName = :lastName, u.version = u.version + 1 "
+                + "WHERE u.id = :id AND (:version IS NULL OR u.version = :version)")).thenReturn(mutationQuery);
+        when(mutationQuery.setParameter(anyString(), any())).thenReturn(mutationQuery);
+        when(mutationQuery.executeUpdate()).thenReturn(0);
         when(session.get(Users.class, 1L)).thenReturn(testUser);
 
+        assertThrows(UserVersionMismatchException.class, () -> service.updateUserDirect(1L, userRequest, 1L));
+        verify(mutationQuery).setParameter("version", 1L);
+        verifyNoInteractions(usersSearchIndex);
+        verify(transaction).rollback();
+    }
+
+    @Test
+    void shouldUpdateUserDirect() {
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(session.createMutationQuery("UPDATE Users u SET u.firstName = :firstName, u.lastName = :lastName, u.version = u.version + 1 "
+                + "WHERE u.id = :id AND (:version IS NULL OR u.version = :version)")).thenReturn(mutationQuery);
+        when(mutationQuery.setParameter(anyString(), any())).thenReturn(mutationQuery);
+        when(mutationQuery.executeUpdate()).thenReturn(1);
+
+        int result = service.updateUserDirect(1L, userRequest, null);
+
+        assertEquals(1, result);
+        verify(mutationQuery).setParameter("id", 1L);
+        verify(session, never()).get(Users.class, 1L);
+        verify(usersSearchIndex).updateDocument(session, 1L, userRequest);
+        verify(transaction).commit();
+    }
+
+    @Test
+    void shouldThrowWhenDirectUpdateMatchesNoRows() {
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(session.createMutationQuery("UPDATE Users u SET u.firstName = :firstName, u.lastName = :lastName, u.version = u.version + 1 "
+                + "WHERE u.id = :id AND (:version IS NULL OR u.version = :version)")).thenReturn(mutationQuery);
+        when(mutationQuery.setParameter(anyString(), any())).thenReturn(mutationQuery);
+        when(mutationQuery.executeUpdate()).thenReturn(0);
+
+        assertThrows(UserNotFoundException.class, () -> service.updateUserDirect(1L, userRequest, null));
+        verify(transaction).rollback();
+    }
+
+    @Test
+    void shouldDeleteUser() {
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(session.createMutationQuery("DELETE FROM Users u WHERE u.id = :id")).thenReturn(mutationQuery);
+        when(mutationQuery.setParameter("id", 1L)).thenReturn(mutationQuery);
+        when(mutationQuery.executeUpdate()).thenReturn(1);
+
         service.deleteUser(1L);
 
         verify(sessionFactory, times(1)).openSession();
-        verify(session).get(Users.class, 1L);
-        verify(session).remove(testUser);
+        verify(session, never()).get(Users.class, 1L);
+        verify(session, never()).remove(any());
+        verify(usersSearchIndex).deleteDocuments(session, List.of(1L));
+        verify(transaction).commit();
+    }
+
+    @Test
+    void shouldThrowWhenDeletingMissingUser() {
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(session.createMutationQuery("DELETE FROM Users u WHERE u.id = :id")).thenReturn(mutationQuery);
+        when(mutationQuery.setParameter("id", 1L)).thenReturn(mutationQuery);
+        when(mutationQuery.executeUpdate()).thenReturn(0);
+
+        assertThrows(UserNotFoundException.class, () -> service.deleteUser(1L));
+        verify(transaction).rollback();
+    }
+
+    @Test
+    void shouldDeleteUsersByIds() {
+        List<Long> ids = List.of(1L, 2L);
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(session.createMutationQuery("DELETE FROM Users u WHERE u.id IN :ids")).thenReturn(mutationQuery);
+        when(mutationQuery.setParameterList("ids", ids)).thenReturn(mutationQuery);
+        when(mutationQuery.executeUpdate()).thenReturn(2);
+
+        int result = service.deleteUsers(ids);
+
+        assertEquals(2, result);
+        verify(usersSearchIndex).deleteDocuments(session, ids);
         verify(transaction).commit();
     }
 
     @Test
     void shouldFindAllUsers() {
-        List<Users> usersList = Collections.singletonList(testUser);
         List<UserResponse> responseList = Collections.singletonList(userResponse);
 
         when(sessionFactory.openSession()).thenReturn(session);
-        when(session.createQuery("FROM Users", Users.class)).thenReturn(query);
-        when(query.list()).thenReturn(usersList);
-        when(userConverter.toResponseList(usersList)).thenReturn(responseList);
+        when(session.createQuery("SELECT new com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse(u.id, u.firstName, u.lastName, u.version) FROM Users u", UserResponse.class)).thenReturn(query);
+        when(query.list()).thenReturn(responseList);
 
         List<UserResponse> result = service.findAllUsers();
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
+        assertSame(responseList, result);
         verify(sessionFactory).openSession();
-        verify(session).createQuery("FROM Users", Users.class);
-        verify(userConverter).toResponseList(usersList);
+        verify(session).createQuery("SELECT new com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse(u.id, u.firstName, u.lastName, u.version) FROM Users u", UserResponse.class);
+        verify(session, never()).createQuery("FROM Users", Users.class);
+        verifyNoInteractions(userConverter);
+    }
+
+    @Test
+    void shouldFindUsersPage() {
+        List<UserResponse> responseList = Collections.singletonList(userResponse);
+        UserPageResponse pageResponse = new UserPageResponse();
+
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.createQuery("SELECT new com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse(u.id, u.firstName, u.lastName, u.version) FROM Users u WHERE u.id > :afterId ORDER BY u.id", UserResponse.class)).thenReturn(query);
+        when(query.setParameter("afterId", 1000L)).thenReturn(query);
+        when(query.setMaxResults(3)).thenReturn(query);
+        when(query.list()).thenReturn(responseList);
+        when(userConverter.toPageResponse(responseList, 2)).thenReturn(pageResponse);
+
+        UserPageResponse result = service.findUsersPage(1000L, 2);
+
+        assertSame(pageResponse, result);
+        verify(query).setParameter("afterId", 1000L);
+        verify(query).setMaxResults(3);
+        verify(session).close();
+    }
+
+    @Test
+    void shouldExportUsers() {
+        List<UserResponse> exported = new ArrayList<>();
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(session.createQuery("SELECT new com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse(u.id, u.firstName, u.lastName, u.version) FROM Users u ORDER BY u.id", UserResponse.class)).thenReturn(query);
+        when(query.setFetchSize(500)).thenReturn(query);
+        when(query.scroll(ScrollMode.FORWARD_ONLY)).thenReturn(scrollableResults);
+        when(scrollableResults.next()).thenReturn(true, false);
+        when(scrollableResults.get()).thenReturn(userResponse);
+
+        service.exportUsers(exported::add);
+
+        assertEquals(List.of(userResponse), exported);
+        verify(query).scroll(ScrollMode.FORWARD_ONLY);
+        verify(scrollableResults).close();
+        verify(session, never()).clear();
+        verify(transaction).commit();
+        verify(session).close();
     }
 
     @Test
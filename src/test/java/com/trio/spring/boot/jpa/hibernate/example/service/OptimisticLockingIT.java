@@ -0,0 +1,87 @@
+package com.trio.spring.boot.jpa.hibernate.example.service;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserVersionMismatchException;
+import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@Sql(scripts = "classpath:sql/init_users.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:sql/cleanup_users.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class OptimisticLockingIT {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SpringDataJpaExampleService springDataJpaExampleService;
+
+    @Autowired
+    private HibernateSessionExampleService hibernateSessionExampleService;
+
+    @Autowired
+    private EntityManagerOperationsExampleService entityManagerOperationsExampleService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void shouldRejectFlushOfUserChangedByAnotherTransaction() {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            Users staleUser = em.find(Users.class, 1000L); // Loaded before the concurrent update commits
+
+            hibernateSessionExampleService.updateUser(1000L, userRequest("Concurrent", "Writer"), null);
+            staleUser.setFirstName("Lost");
+
+            assertThrows(OptimisticLockException.class, em::flush); // Without @Version this UPDATE would silently overwrite the other one
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+        assertEquals("Concurrent", entityManagerOperationsExampleService.getUserById(1000L).getFirstName());
+    }
+
+    @Test
+    void shouldTranslateConflictInTransactionalUpdate() {
+        assertThrows(OptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            Users user = springDataJpaExampleService.updateUser(1001L, userRequest("Outer", "Writer"), null); // Joins the outer transaction, flushed on commit
+            entityManagerOperationsExampleService.updateUser(1001L, userRequest("Inner", "Writer"), user.getVersion()); // Commits first in its own EntityManager
+        }));
+
+        assertEquals("Inner", springDataJpaExampleService.getById(1001L).getFirstName());
+    }
+
+    @Test
+    void shouldIncrementVersionOnEveryUpdateStyle() {
+        Long version = springDataJpaExampleService.getById(1002L).getVersion();
+
+        springDataJpaExampleService.updateUser(1002L, userRequest("One", "Update"), version);
+        hibernateSessionExampleService.updateUserDirect(1002L, userRequest("Two", "Update"), version + 1);
+        entityManagerOperationsExampleService.updateUser(1002L, userRequest("Three", "Update"), version + 2);
+
+        assertEquals(version + 3, springDataJpaExampleService.getById(1002L).getVersion());
+        assertThrows(UserVersionMismatchException.class,
+                () -> springDataJpaExampleService.updateUserDirect(1002L, userRequest("Stale", "Update"), version));
+    }
+
+    private static UserRequest userRequest(String firstName, String lastName) {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setFirstName(firstName);
+        userRequest.setLastName(lastName);
+        return userRequest;
+    }
+}
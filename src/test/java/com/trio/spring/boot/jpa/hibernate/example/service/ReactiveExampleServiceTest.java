@@ -0,0 +1,123 @@
+package com.trio.spring.boot.jpa.hibernate.example.service;
+
+import com.trio.spring.boot.jpa.hibernate.example.converter.UserConverter;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserNotFoundException;
+import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveExampleServiceTest {
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private DatabaseClient.GenericExecuteSpec executeSpec;
+
+    @Spy
+    private UserConverter userConverter = new UserConverter();
+
+    @InjectMocks
+    private ReactiveExampleService service;
+
+    @BeforeEach
+    void setUp() {
+        when(databaseClient.sql(anyString())).thenReturn(executeSpec);
+    }
+
+    @Test
+    void findAllUsers_ShouldMapEveryRow() {
+        stubRows(row(1L, "John", "Doe"), row(2L, "Jane", "Roe"));
+
+        List<UserResponse> result = service.findAllUsers().collectList().block();
+
+        assertEquals(List.of(1L, 2L), result.stream().map(UserResponse::getId).toList());
+        assertEquals("John", result.get(0).getFirstName());
+        assertEquals("Roe", result.get(1).getLastName());
+        verify(databaseClient).sql(contains("ORDER BY id"));
+    }
+
+    @Test
+    void findAllBySearchParam_ShouldBindLowerCaseEscapedPrefix() {
+        when(executeSpec.bind(anyString(), any())).thenReturn(executeSpec);
+        stubRows(row(1L, "John", "Doe"));
+
+        List<UserResponse> result = service.findAllBySearchParam("Jo_%").collectList().block();
+
+        assertEquals(1, result.size());
+        verify(executeSpec).bind("prefix", "jo\\_\\%%");
+        verify(executeSpec).bind("limit", 20);
+    }
+
+    @Test
+    void getUserById_WhenUserExists_ShouldReturnUser() {
+        when(executeSpec.bind(anyString(), any())).thenReturn(executeSpec);
+        stubRows(row(1L, "John", "Doe"));
+
+        UserResponse result = service.getUserById(1L).block();
+
+        assertNotNull(result);
+        assertEquals(1L, result.getId());
+        verify(executeSpec).bind("id", 1L);
+    }
+
+    @Test
+    void getUserById_WhenUserNotExists_ShouldThrowException() {
+        when(executeSpec.bind(anyString(), any())).thenReturn(executeSpec);
+        stubRows();
+
+        Mono<UserResponse> result = service.getUserById(1L);
+
+        assertThrows(UserNotFoundException.class, result::block);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRows(Readable... rows) {
+        when(executeSpec.map(any(Function.class))).thenAnswer(invocation -> {
+            Function<Readable, Users> mapper = invocation.getArgument(0);
+            return new RowsFetchSpec<Users>() {
+                @Override
+                public Mono<Users> one() {
+                    return all().singleOrEmpty();
+                }
+
+                @Override
+                public Mono<Users> first() {
+                    return all().next();
+                }
+
+                @Override
+                public Flux<Users> all() {
+                    return Flux.just(rows).map(mapper);
+                }
+            };
+        });
+    }
+
+    private static Readable row(Long id, String firstName, String lastName) {
+        Readable row = mock(Readable.class);
+        when(row.get("id", Long.class)).thenReturn(id);
+        when(row.get("first_name", String.class)).thenReturn(firstName);
+        when(row.get("last_name", String.class)).thenReturn(lastName);
+        return row;
+    }
+}
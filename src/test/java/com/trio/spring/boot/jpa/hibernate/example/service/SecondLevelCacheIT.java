@@ -0,0 +1,107 @@
+package com.trio.spring.boot.jpa.hibernate.example.service;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.CacheRegionStatisticsResponse;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.repository.UsersRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static com.trio.spring.boot.jpa.hibernate.example.config.SecondLevelCacheConfiguration.QUERY_RESULTS_REGION;
+import static com.trio.spring.boot.jpa.hibernate.example.config.SecondLevelCacheConfiguration.USERS_REGION;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "users.response-cache.enabled=false") // Measure the second-level cache alone, without the DTO cache in front of it
+@AutoConfigureTestDatabase
+@Sql(scripts = "classpath:sql/init_users.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:sql/cleanup_users.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class SecondLevelCacheIT {
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private SpringDataJpaExampleService springDataJpaExampleService;
+
+    @Autowired
+    private HibernateSessionExampleService hibernateSessionExampleService;
+
+    @Autowired
+    private EntityManagerOperationsExampleService entityManagerOperationsExampleService;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromSecondLevelCacheAcrossAllStyles() {
+        springDataJpaExampleService.getById(1000L); // Miss, loads the row and puts it into the cache
+        long statementsAfterFirstLookup = statistics.getPrepareStatementCount();
+
+        springDataJpaExampleService.getById(1000L);
+        hibernateSessionExampleService.getUserById(1000L);
+        entityManagerOperationsExampleService.getUserById(1000L);
+
+        assertEquals(1, statementsAfterFirstLookup);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheMissCount());
+        assertEquals(3, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void shouldRefreshCachedEntityOnUpdate() {
+        hibernateSessionExampleService.getUserById(1001L);
+
+        UserRequest userRequest = new UserRequest();
+        userRequest.setFirstName("Cached");
+        userRequest.setLastName("Update");
+        entityManagerOperationsExampleService.updateUser(1001L, userRequest, null);
+
+        assertEquals("Cached", springDataJpaExampleService.getById(1001L).getFirstName());
+    }
+
+    @Test
+    void shouldServeRepeatedQueriesFromQueryCache() {
+        usersRepository.findByLastName("Black");
+        usersRepository.findByLastName("Black");
+
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void shouldReportRegionStatistics() {
+        entityManagerOperationsExampleService.getUserById(1003L);
+        entityManagerOperationsExampleService.getUserById(1003L);
+
+        List<CacheRegionStatisticsResponse> regions = cacheStatisticsService.getSecondLevelCacheStatistics();
+
+        CacheRegionStatisticsResponse users = regions.stream()
+                .filter(region -> USERS_REGION.equals(region.getRegion()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, users.getHitCount());
+        assertEquals(1, users.getMissCount());
+        assertEquals(1, users.getPutCount());
+        assertEquals(0, users.getEvictionCount());
+        assertTrue(regions.stream().anyMatch(region -> QUERY_RESULTS_REGION.equals(region.getRegion())));
+    }
+}
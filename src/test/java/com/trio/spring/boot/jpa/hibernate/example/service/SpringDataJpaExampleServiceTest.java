@@ -1,22 +1,36 @@
 package com.trio.spring.boot.jpa.hibernate.example.service;
 
+import com.trio.spring.boot.jpa.hibernate.example.batching.UserBatchLoader;
+import com.trio.spring.boot.jpa.hibernate.example.config.BulkInsertProperties;
 import com.trio.spring.boot.jpa.hibernate.example.converter.UserConverter;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserPageResponse;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
 import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import com.trio.spring.boot.jpa.hibernate.example.exception.TooManyUserIdsException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserNotFoundException;
+import com.trio.spring.boot.jpa.hibernate.example.exception.UserVersionMismatchException;
 import com.trio.spring.boot.jpa.hibernate.example.repository.UsersRepository;
 import com.trio.spring.boot.jpa.hibernate.example.repository.domain.Users;
+import com.trio.spring.boot.jpa.hibernate.example.search.UsersSearchIndex;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +42,18 @@ class SpringDataJpaExampleServiceTest {
     @Mock
     private UserConverter userConverter;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private UsersSearchIndex usersSearchIndex;
+
+    @Mock
+    private UserBatchLoader userBatchLoader;
+
+    @Spy
+    private BulkInsertProperties bulkInsertProperties = new BulkInsertProperties();
+
     @InjectMocks
     private SpringDataJpaExampleService service;
 
@@ -65,13 +91,29 @@ class SpringDataJpaExampleServiceTest {
         verify(usersRepository).save(testUser);
     }
 
+    @Test
+    void shouldSaveUsersInBatches() {
+        bulkInsertProperties.setBatchSize(2);
+        List<UserRequest> userRequests = List.of(userRequest, userRequest, userRequest);
+        when(userConverter.toEntity(userRequest)).thenReturn(testUser);
+        when(usersRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Users> result = service.saveUsers(userRequests);
+
+        assertEquals(3, result.size());
+        verify(usersRepository).saveAll(List.of(testUser, testUser));
+        verify(usersRepository).saveAll(List.of(testUser));
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
     @Test
     void shouldUpdateUser() {
         when(usersRepository.findById(1L)).thenReturn(Optional.of(testUser));
         when(userConverter.updateEntity(testUser, userRequest)).thenReturn(testUser);
         when(usersRepository.save(testUser)).thenReturn(testUser);
 
-        Users result = service.updateUser(1L, userRequest);
+        Users result = service.updateUser(1L, userRequest, null);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
@@ -81,29 +123,210 @@ class SpringDataJpaExampleServiceTest {
     }
 
     @Test
-    void shouldDeleteUser() {
+    void shouldUpdateUserDirect() {
+        when(usersRepository.updateNamesById(1L, null, "John", "Doe")).thenReturn(1);
+
+        int result = service.updateUserDirect(1L, userRequest, null);
+
+        assertEquals(1, result);
+        verify(usersRepository).updateNamesById(1L, null, "John", "Doe");
+        verify(usersRepository, never()).findById(1L);
+        verify(usersSearchIndex).updateDocument(entityManager, 1L, userRequest);
+    }
+
+    @Test
+    void shouldThrowWhenDirectUpdateMatchesNoRows() {
+        when(usersRepository.updateNamesById(1L, null, "John", "Doe")).thenReturn(0);
+
+        assertThrows(UserNotFoundException.class, () -> service.updateUserDirect(1L, userRequest, null));
+    }
+
+    @Test
+    void shouldRejectUpdateWhenVersionIsStale() {
+        testUser.setVersion(2L);
         when(usersRepository.findById(1L)).thenReturn(Optional.of(testUser));
 
+        assertThrows(UserVersionMismatchException.class, () -> service.updateUser(1L, userRequest, 1L));
+        verify(userConverter, never()).updateEntity(any(), any());
+        verify(usersRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectDirectUpdateWhenVersionIsStale() {
+        when(usersRepository.updateNamesById(1L, 1L, "John", "Doe")).thenReturn(0);
+        when(usersRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(UserVersionMismatchException.class, () -> service.updateUserDirect(1L, userRequest, 1L));
+        verifyNoInteractions(usersSearchIndex);
+    }
+
+    @Test
+    void shouldDeleteUser() {
+        when(usersRepository.deleteUserById(1L)).thenReturn(1);
+
         service.deleteUser(1L);
 
-        verify(usersRepository).findById(1L);
-        verify(usersRepository).delete(testUser);
+        verify(usersRepository).deleteUserById(1L);
+        verify(usersRepository, never()).findById(1L);
+        verify(usersSearchIndex).deleteDocuments(entityManager, List.of(1L));
+    }
+
+    @Test
+    void shouldThrowWhenDeletingMissingUser() {
+        when(usersRepository.deleteUserById(1L)).thenReturn(0);
+
+        assertThrows(UserNotFoundException.class, () -> service.deleteUser(1L));
+    }
+
+    @Test
+    void shouldDeleteUsersByIds() {
+        List<Long> ids = List.of(1L, 2L);
+        when(usersRepository.deleteUsersByIdIn(ids)).thenReturn(2);
+
+        int result = service.deleteUsers(ids);
+
+        assertEquals(2, result);
+        verify(usersRepository).deleteUsersByIdIn(ids);
+        verify(usersSearchIndex).deleteDocuments(entityManager, ids);
+    }
+
+    @Test
+    void shouldSkipDeleteForEmptyIdList() {
+        assertEquals(0, service.deleteUsers(List.of()));
+        verify(usersRepository, never()).deleteUsersByIdIn(any());
     }
 
     @Test
     void shouldFindAllUsers() {
-        List<Users> usersList = Arrays.asList(testUser);
-        List<UserResponse> responseList = Arrays.asList(userResponse);
+        List<UserResponse> responseList = List.of(userResponse);
 
-        when(usersRepository.findAll()).thenReturn(usersList);
-        when(userConverter.toResponseList(usersList)).thenReturn(responseList);
+        when(usersRepository.findAllUserResponses()).thenReturn(responseList);
 
         List<UserResponse> result = service.findAllUsers();
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(usersRepository).findAll();
-        verify(userConverter).toResponseList(usersList);
+        assertSame(responseList, result);
+        verify(usersRepository, never()).findAll();
+        verifyNoInteractions(userConverter);
+    }
+
+    @Test
+    void shouldFindUsersByFirstName() {
+        List<Users> usersList = List.of(testUser);
+        List<UserResponse> responseList = List.of(userResponse);
+
+        when(usersRepository.findByFirstName("John")).thenReturn(usersList);
+        when(userConverter.toResponseList(usersList)).thenReturn(responseList);
+
+        List<UserResponse> result = service.findUsersByFirstName("John", false);
+
+        assertSame(responseList, result);
+        verify(usersRepository, never()).findByFirstNameIgnoreCase(any());
+    }
+
+    @Test
+    void shouldFindUsersByFirstNameIgnoringCase() {
+        List<Users> usersList = List.of(testUser);
+        List<UserResponse> responseList = List.of(userResponse);
+
+        when(usersRepository.findByFirstNameIgnoreCase("john")).thenReturn(usersList);
+        when(userConverter.toResponseList(usersList)).thenReturn(responseList);
+
+        List<UserResponse> result = service.findUsersByFirstName("john", true);
+
+        assertSame(responseList, result);
+        verify(usersRepository, never()).findByFirstName(any());
+    }
+
+    @Test
+    void shouldFindUsersByLastName() {
+        List<Users> usersList = List.of(testUser);
+        List<UserResponse> responseList = List.of(userResponse);
+
+        when(usersRepository.findByLastName("Doe")).thenReturn(usersList);
+        when(userConverter.toResponseList(usersList)).thenReturn(responseList);
+
+        List<UserResponse> result = service.findUsersByLastName("Doe", false);
+
+        assertSame(responseList, result);
+        verify(usersRepository, never()).findByLastNameIgnoreCase(any());
+    }
+
+    @Test
+    void shouldFindUsersByLastNameIgnoringCase() {
+        List<Users> usersList = List.of(testUser);
+        List<UserResponse> responseList = List.of(userResponse);
+
+        when(usersRepository.findByLastNameIgnoreCase("DOE")).thenReturn(usersList);
+        when(userConverter.toResponseList(usersList)).thenReturn(responseList);
+
+        List<UserResponse> result = service.findUsersByLastName("DOE", true);
+
+        assertSame(responseList, result);
+        verify(usersRepository, never()).findByLastName(any());
+    }
+
+    @Test
+    void shouldFindUsersByName() {
+        List<Users> usersList = List.of(testUser);
+        List<UserResponse> responseList = List.of(userResponse);
+
+        when(usersRepository.findByLastNameAndFirstName("Doe", "John")).thenReturn(usersList);
+        when(userConverter.toResponseList(usersList)).thenReturn(responseList);
+
+        List<UserResponse> result = service.findUsersByName("John", "Doe", false);
+
+        assertSame(responseList, result);
+        verify(usersRepository, never()).findByLastNameAndFirstNameIgnoreCase(any(), any());
+    }
+
+    @Test
+    void shouldFindUsersByNameIgnoringCase() {
+        List<Users> usersList = List.of(testUser);
+        List<UserResponse> responseList = List.of(userResponse);
+
+        when(usersRepository.findByLastNameAndFirstNameIgnoreCase("doe", "JOHN")).thenReturn(usersList);
+        when(userConverter.toResponseList(usersList)).thenReturn(responseList);
+
+        List<UserResponse> result = service.findUsersByName("JOHN", "doe", true);
+
+        assertSame(responseList, result);
+        verify(usersRepository, never()).findByLastNameAndFirstName(any(), any());
+    }
+
+    @Test
+    void shouldFindUsersPage() {
+        List<UserResponse> responseList = List.of(userResponse);
+        UserPageResponse pageResponse = new UserPageResponse();
+
+        when(usersRepository.findUserResponsesByIdGreaterThan(0L, Limit.of(21))).thenReturn(responseList);
+        when(userConverter.toPageResponse(responseList, 20)).thenReturn(pageResponse);
+
+        UserPageResponse result = service.findUsersPage(null, 20);
+
+        assertSame(pageResponse, result);
+        verify(usersRepository).findUserResponsesByIdGreaterThan(0L, Limit.of(21));
+        verify(userConverter).toPageResponse(responseList, 20);
+    }
+
+    @Test
+    void shouldCapUsersPageSize() {
+        when(usersRepository.findUserResponsesByIdGreaterThan(1L, Limit.of(UserPageResponse.MAX_PAGE_SIZE + 1))).thenReturn(List.of());
+
+        service.findUsersPage(1L, 100_000);
+
+        verify(usersRepository).findUserResponsesByIdGreaterThan(1L, Limit.of(UserPageResponse.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void shouldExportUsers() {
+        List<UserResponse> exported = new ArrayList<>();
+        when(usersRepository.streamAllUserResponsesOrderById()).thenReturn(Stream.of(userResponse));
+
+        service.exportUsers(exported::add);
+
+        assertEquals(List.of(userResponse), exported);
+        verify(usersRepository).streamAllUserResponsesOrderById();
+        verify(entityManager, never()).clear();
     }
 
     @Test
@@ -120,6 +343,35 @@ class SpringDataJpaExampleServiceTest {
         verify(userConverter).toResponse(testUser);
     }
 
+    @Test
+    void shouldLoadUserThroughBatchLoaderWhenEnabled() {
+        when(userBatchLoader.isEnabled()).thenReturn(true);
+        when(userBatchLoader.load(eq(SpringDataJpaExampleService.class), eq(1L), any())).thenReturn(userResponse);
+
+        assertSame(userResponse, service.getById(1L));
+        verify(usersRepository, never()).findById(any());
+    }
+
+    @Test
+    void shouldGetUsersByIdsInRequestOrder() {
+        Users secondUser = new Users();
+        secondUser.setId(2L);
+        when(usersRepository.findAllById(List.of(2L, 3L, 1L))).thenReturn(List.of(testUser, secondUser));
+        when(userConverter.toResponseList(List.of(secondUser, testUser))).thenReturn(List.of(userResponse));
+
+        List<UserResponse> result = service.getUsersByIds(List.of(2L, 3L, 1L, 2L));
+
+        assertEquals(List.of(userResponse), result);
+    }
+
+    @Test
+    void shouldRejectTooManyIds() {
+        List<Long> ids = LongStream.rangeClosed(1, UserPageResponse.MAX_PAGE_SIZE + 1).boxed().toList();
+
+        assertThrows(TooManyUserIdsException.class, () -> service.getUsersByIds(ids));
+        verifyNoInteractions(usersRepository);
+    }
+
     @Test
     void shouldThrowExceptionWhenUserNotFound() {
         when(usersRepository.findById(1L)).thenReturn(Optional.empty());
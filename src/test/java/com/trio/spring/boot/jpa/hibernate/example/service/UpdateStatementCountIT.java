@@ -0,0 +1,101 @@
+package com.trio.spring.boot.jpa.hibernate.example.service;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Counts the statements and sessions behind each update path with Hibernate Statistics
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase
+@Sql(scripts = "classpath:sql/init_users.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:sql/cleanup_users.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class UpdateStatementCountIT {
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private SpringDataJpaExampleService springDataJpaExampleService;
+
+    @Autowired
+    private HibernateSessionExampleService hibernateSessionExampleService;
+
+    @Autowired
+    private EntityManagerOperationsExampleService entityManagerOperationsExampleService;
+
+    private Statistics statistics;
+    private UserRequest userRequest;
+
+    @BeforeEach
+    void setUp() {
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        userRequest = new UserRequest();
+        userRequest.setFirstName("Counted");
+        userRequest.setLastName("Update");
+    }
+
+    @Test
+    void shouldUpdateWithOneSelectAndOneUpdateInOneSessionUsingSpringDataJpa() {
+        springDataJpaExampleService.updateUser(1000L, userRequest, null);
+
+        assertEntityUpdate();
+    }
+
+    @Test
+    void shouldUpdateWithOneSelectAndOneUpdateInOneSessionUsingHibernateSession() {
+        hibernateSessionExampleService.updateUser(1001L, userRequest, null);
+
+        assertEntityUpdate();
+    }
+
+    @Test
+    void shouldUpdateWithOneSelectAndOneUpdateInOneSessionUsingEntityManager() {
+        entityManagerOperationsExampleService.updateUser(1002L, userRequest, null);
+
+        assertEntityUpdate();
+    }
+
+    @Test
+    void shouldUpdateDirectWithSingleStatementUsingSpringDataJpa() {
+        springDataJpaExampleService.updateUserDirect(1003L, userRequest, null);
+
+        assertDirectUpdate();
+    }
+
+    @Test
+    void shouldUpdateDirectWithSingleStatementUsingHibernateSession() {
+        hibernateSessionExampleService.updateUserDirect(1004L, userRequest, null);
+
+        assertDirectUpdate();
+    }
+
+    @Test
+    void shouldUpdateDirectWithSingleStatementUsingEntityManager() {
+        entityManagerOperationsExampleService.updateUserDirect(1003L, userRequest, null);
+
+        assertDirectUpdate();
+    }
+
+    private void assertEntityUpdate() {
+        assertEquals(1, statistics.getSessionOpenCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertEquals(2, statistics.getPrepareStatementCount()); // One SELECT and one UPDATE, no second SELECT from merge()
+    }
+
+    private void assertDirectUpdate() {
+        assertEquals(1, statistics.getSessionOpenCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount()); // Only the UPDATE statement
+    }
+}
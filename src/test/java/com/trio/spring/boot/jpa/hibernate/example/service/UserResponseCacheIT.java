@@ -0,0 +1,176 @@
+package com.trio.spring.boot.jpa.hibernate.example.service;
+
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserRequest;
+import com.trio.spring.boot.jpa.hibernate.example.data.dto.UserResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.trio.spring.boot.jpa.hibernate.example.config.UserResponseCacheConfiguration.USER_RESPONSES_CACHE;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@Sql(scripts = "classpath:sql/init_users.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+@Sql(scripts = "classpath:sql/cleanup_users.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_CLASS)
+class UserResponseCacheIT {
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private CacheManager userResponseCacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SpringDataJpaExampleService springDataJpaExampleService;
+
+    @Autowired
+    private HibernateSessionExampleService hibernateSessionExampleService;
+
+    @Autowired
+    private EntityManagerOperationsExampleService entityManagerOperationsExampleService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Cache cache;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        cache = userResponseCacheManager.getCache(USER_RESPONSES_CACHE);
+        cache.clear();
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsWithoutTouchingHibernate() {
+        UserResponse first = springDataJpaExampleService.getById(1000L);
+
+        assertSame(first, hibernateSessionExampleService.getUserById(1000L)); // One cache for all three styles
+        assertSame(first, entityManagerOperationsExampleService.getUserById(1000L));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getSecondLevelCacheHitCount()); // Hits never reach the session, let alone the second-level cache
+        assertEquals(1, statistics.getSessionOpenCount());
+    }
+
+    @Test
+    void shouldEvictOnEveryWriteStyle() {
+        springDataJpaExampleService.getById(1001L);
+        entityManagerOperationsExampleService.updateUser(1001L, userRequest("Entity", "Update"), null);
+        assertEquals("Entity", hibernateSessionExampleService.getUserById(1001L).getFirstName());
+
+        hibernateSessionExampleService.updateUserDirect(1001L, userRequest("Direct", "Update"), null);
+        assertEquals("Direct", entityManagerOperationsExampleService.getUserById(1001L).getFirstName());
+
+        springDataJpaExampleService.deleteUser(1001L);
+        assertNull(cache.get(1001L));
+    }
+
+    @Test
+    void shouldEvictOnlyAfterSurroundingTransactionCommits() {
+        springDataJpaExampleService.getById(1002L);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            springDataJpaExampleService.updateUserDirect(1002L, userRequest("Deferred", "Eviction"), null);
+            assertNotNull(cache.get(1002L)); // Evicting now would let a concurrent miss cache the old row again
+        });
+
+        assertNull(cache.get(1002L));
+        assertEquals("Deferred", springDataJpaExampleService.getById(1002L).getFirstName());
+    }
+
+    @Test
+    void shouldLoadConcurrentMissesForOneIdOnce() throws Exception {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<UserResponse>> lookups = IntStream.range(0, threads)
+                    .mapToObj(i -> executor.submit(() -> {
+                        start.await();
+                        return hibernateSessionExampleService.getUserById(1003L);
+                    }))
+                    .toList();
+            start.countDown();
+            for (Future<UserResponse> lookup : lookups) {
+                assertEquals(1003L, lookup.get().getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldLoadOutsideCacheLock() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> load = executor.submit(() -> cache.get(1004L, () -> {
+                loading.countDown();
+                release.await(); // Stands in for a lookup parked in the batch loader
+                return new UserResponse();
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(2), () -> cache.evict(1004L)); // A compute-based load would hold the entry's lock
+
+            release.countDown();
+            assertNotNull(load.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldPublishCacheMetrics() {
+        double hits = cacheGets("hit");
+        double misses = cacheGets("miss");
+
+        entityManagerOperationsExampleService.getUserById(1004L);
+        entityManagerOperationsExampleService.getUserById(1004L);
+
+        assertEquals(hits + 1, cacheGets("hit"));
+        assertEquals(misses + 1, cacheGets("miss"));
+        assertNotNull(meterRegistry.find("cache.load.duration").tag("cache", USER_RESPONSES_CACHE).functionTimer());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", USER_RESPONSES_CACHE).functionCounter());
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", USER_RESPONSES_CACHE).tag("result", result).functionCounter().count();
+    }
+
+    private static UserRequest userRequest(String firstName, String lastName) {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setFirstName(firstName);
+        userRequest.setLastName(lastName);
+        return userRequest;
+    }
+}
@@ -0,0 +1,181 @@
+package com.trio.spring.boot.jpa.hibernate.example.support;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Records every statement executed through the wrapped DataSource, from any thread, so a test can put a budget on the SQL
+// behind a request. A JDBC batch is one round trip and counts once; fetching ids from the sequence is counted apart from
+// SELECTs, as how often that happens depends on the pooled optimizer's state and not on the code under test.
+public class SqlStatementCounter {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    public enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, SEQUENCE, OTHER
+    }
+
+    public record ExecutedStatement(Kind kind, String sql) {
+    }
+
+    private final List<ExecutedStatement> statements = new ArrayList<>();
+
+    public DataSource wrap(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+
+            @Override
+            public Connection getConnection() throws SQLException {
+                return recording(obtainTargetDataSource().getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return recording(obtainTargetDataSource().getConnection(username, password));
+            }
+        };
+    }
+
+    public synchronized void reset() {
+        statements.clear();
+    }
+
+    public synchronized List<ExecutedStatement> getStatements() {
+        return List.copyOf(statements);
+    }
+
+    public void assertSelectCount(int expected) {
+        assertCount(Kind.SELECT, expected);
+    }
+
+    public void assertInsertCount(int expected) {
+        assertCount(Kind.INSERT, expected);
+    }
+
+    public void assertUpdateCount(int expected) {
+        assertCount(Kind.UPDATE, expected);
+    }
+
+    public void assertDeleteCount(int expected) {
+        assertCount(Kind.DELETE, expected);
+    }
+
+    // Every kind but SEQUENCE
+    public void assertStatementCount(int expected) {
+        List<ExecutedStatement> executed = getStatements().stream().filter(statement -> statement.kind() != Kind.SEQUENCE).toList();
+        assertEquals(expected, executed.size(), () -> "Statements executed: " + describe(executed));
+    }
+
+    // The same SELECT run again, only with other bind values, is the signature of a lazy load per row
+    public void assertNoNPlusOne() {
+        Map<String, Long> selects = getStatements().stream()
+                .filter(statement -> statement.kind() == Kind.SELECT)
+                .collect(Collectors.groupingBy(ExecutedStatement::sql, Collectors.counting()));
+        selects.forEach((sql, count) -> assertEquals(1L, count, () -> "SELECT executed " + count + " times: " + sql));
+    }
+
+    private void assertCount(Kind kind, int expected) {
+        List<ExecutedStatement> executed = getStatements();
+        long actual = executed.stream().filter(statement -> statement.kind() == kind).count();
+        assertEquals(expected, actual, () -> kind + " count, statements executed: " + describe(executed));
+    }
+
+    private static String describe(List<ExecutedStatement> executed) {
+        return executed.stream().map(ExecutedStatement::sql).collect(Collectors.joining("\n  ", "\n  ", ""));
+    }
+
+    private synchronized void record(String sql) {
+        statements.add(new ExecutedStatement(kind(sql), sql));
+    }
+
+    private static Kind kind(String sql) {
+        String normalized = sql.stripLeading().toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("select next value for") || normalized.startsWith("call next value for")) {
+            return Kind.SEQUENCE;
+        }
+        for (Kind kind : List.of(Kind.SELECT, Kind.INSERT, Kind.UPDATE, Kind.DELETE)) {
+            if (normalized.startsWith(kind.name().toLowerCase(Locale.ROOT))) {
+                return kind;
+            }
+        }
+        return normalized.startsWith("with") ? Kind.SELECT : Kind.OTHER;
+    }
+
+    private Connection recording(Connection connection) {
+        return proxy(ConnectionProxy.class, (method, args) -> {
+            switch (method.getName()) {
+                case "getTargetConnection":
+                    return connection;
+                default:
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement) {
+                        String sql = method.getName().startsWith("prepare") ? (String) args[0] : null; // A plain Statement gets it on execute
+                        return recording(statement, sql);
+                    }
+                    return result;
+            }
+        });
+    }
+
+    private Statement recording(Statement statement, String preparedSql) {
+        Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        List<String> batchedSql = new ArrayList<>();
+        return proxy(type, (method, args) -> {
+            String name = method.getName();
+            if (name.equals("addBatch") && args != null) {
+                batchedSql.add((String) args[0]);
+            } else if (name.equals("clearBatch")) {
+                batchedSql.clear();
+            } else if (EXECUTE_METHODS.contains(name)) {
+                if (preparedSql != null) {
+                    record(preparedSql);
+                } else if (args != null && args.length > 0) {
+                    record((String) args[0]);
+                } else {
+                    batchedSql.stream().findFirst().ifPresent(this::record); // A Statement batch, also one round trip
+                    batchedSql.clear();
+                }
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> handler.invoke(method, args);
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, invocationHandler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private interface Handler {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+}
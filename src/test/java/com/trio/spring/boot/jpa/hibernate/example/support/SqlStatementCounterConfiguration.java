@@ -0,0 +1,28 @@
+package com.trio.spring.boot.jpa.hibernate.example.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+// Import into a @SpringBootTest to count the statements run through the application's DataSource, also the one that
+// @AutoConfigureTestDatabase puts in its place
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlStatementCounterConfiguration {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlStatementCountingDataSource(SqlStatementCounter sqlStatementCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && beanName.equals("dataSource") ? sqlStatementCounter.wrap(dataSource) : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,13 @@
+-- Runs on every new connection to the replica-b H2 database (INIT=RUNSCRIPT), so every statement is idempotent
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT PRIMARY KEY,
+    first_name VARCHAR(255),
+    first_name_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(first_name)),
+    last_name VARCHAR(255),
+    last_name_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(last_name)),
+    version BIGINT DEFAULT 0 NOT NULL
+);
+CREATE TABLE IF NOT EXISTS replica_status (lag_seconds DOUBLE);
+
+INSERT INTO users (id, first_name, last_name) SELECT 900000, 'Replica', 'B' WHERE NOT EXISTS (SELECT 1 FROM users);
+INSERT INTO replica_status (lag_seconds) SELECT 0 WHERE NOT EXISTS (SELECT 1 FROM replica_status);